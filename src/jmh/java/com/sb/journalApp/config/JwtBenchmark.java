@@ -0,0 +1,77 @@
+package com.sb.journalApp.config;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/verify through the exact beans JwtConfig builds (HS256). decodeCached vs decodeAndVerify
+ * is the per-request CPU the verified-token cache saves; run with -t N to see it under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "benchmark-secret-that-is-at-least-32-characters-long";
+
+    @Param({"1", "1000"})
+    int distinctTokens;
+
+    private JwtEncoder encoder;
+    private JwtDecoder decoder;
+    private JwtDecoder cachingDecoder;
+    private JwtEncoderParameters params;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        JwtConfig config = new JwtConfig();
+        encoder = config.jwtEncoder(SECRET);
+        decoder = JwtConfig.nimbusJwtDecoder(SECRET);
+        cachingDecoder = new CachingJwtDecoder(JwtConfig.nimbusJwtDecoder(SECRET), 10_000);
+
+        Instant now = Instant.now();
+        tokens = new String[distinctTokens];
+        for (int i = 0; i < distinctTokens; i++) {
+            var claims = JwtClaimsSet.builder()
+                    .issuer("journalApp")
+                    .issuedAt(now)
+                    .expiresAt(now.plusSeconds(3600))
+                    .subject("benchuser")
+                    .claim("uid", (long) i)
+                    .claim("roles", List.of("USER"))
+                    .build();
+            params = JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims);
+            tokens[i] = encoder.encode(params).getTokenValue();
+        }
+        for (String t : tokens) cachingDecoder.decode(t); // steady state: every token seen before
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(params).getTokenValue();
+    }
+
+    @Benchmark
+    public Jwt decodeAndVerify(Cursor c) {
+        return decoder.decode(tokens[c.next++ % tokens.length]);
+    }
+
+    @Benchmark
+    public Jwt decodeCached(Cursor c) {
+        return cachingDecoder.decode(tokens[c.next++ % tokens.length]);
+    }
+}
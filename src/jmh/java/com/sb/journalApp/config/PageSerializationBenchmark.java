@@ -0,0 +1,61 @@
+package com.sb.journalApp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sb.journalApp.dto.JournalResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * JSON cost of a journal list page as WebConfig ships it: PageSerializationMode.VIA_DTO wraps
+ * every Page in a PagedModel before Jackson sees it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"10", "100"})
+    int pageSize;
+
+    @Param({"200", "20000"})
+    int messageLength;
+
+    private ObjectMapper mapper;
+    private PagedModel<JournalResponse> page;
+
+    @Setup
+    public void setUp() {
+        // mirrors Boot's defaults for the MVC ObjectMapper
+        mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        String message = "m".repeat(messageLength);
+        List<JournalResponse> content = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(i -> JournalResponse.builder()
+                        .id(i).title("Title " + i).message(message)
+                        .createdAt(now).lastModifiedAt(now).userId(42L).version(1L)
+                        .build())
+                .toList();
+        page = new PagedModel<>(new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000));
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return mapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,48 @@
+package com.sb.journalApp.config;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of TokenBucketLimiter (cache lookup + CAS) across many distinct users.
+ * Run with -Djmh.args="RateLimiterBenchmark -t 8" to see contention on shared keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"10000"})
+    int distinctUsers;
+
+    private TokenBucketLimiter limiter;
+    private Long[] keys;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        // generous limits: measures the bookkeeping of allowed requests, the hot path
+        limiter = new TokenBucketLimiter(1_000_000, 1_000_000, Duration.ofMinutes(10), 100_000);
+        keys = new Long[distinctUsers];
+        for (int i = 0; i < distinctUsers; i++) {
+            keys[i] = (long) i;
+            limiter.tryAcquire(keys[i]);
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire(Cursor cursor) {
+        Long key = keys[cursor.next];
+        cursor.next = (cursor.next + 1) % keys.length;
+        return limiter.tryAcquire(key);
+    }
+}
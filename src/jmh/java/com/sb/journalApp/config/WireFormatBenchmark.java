@@ -0,0 +1,108 @@
+package com.sb.journalApp.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sb.journalApp.dto.JournalResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CPU per format (serialize, parse, serialize + gzip) for a journal list page, the way
+ * WebConfig/server.compression ship it. Bytes on the wire per format are printed once per
+ * trial ("[wire] ..." lines) since JMH only reports time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    @Param({"10", "100"})
+    int pageSize;
+
+    @Param({"200", "20000"})
+    int messageLength;
+
+    private ObjectMapper mapper;
+    private PagedModel<JournalResponse> page;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        // mirrors Boot's defaults for the MVC ObjectMapper (WebConfig builds the binary ones the same way)
+        mapper = new ObjectMapper(factory)
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        // words rather than one repeated char, so gzip ratios look like real prose
+        String[] words = { "today", "I", "walked", "to", "the", "market", "and", "thought", "about", "work", "again" };
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        List<JournalResponse> content = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(i -> {
+                    StringBuilder sb = new StringBuilder(messageLength + 16);
+                    while (sb.length() < messageLength) {
+                        sb.append(words[ThreadLocalRandom.current().nextInt(words.length)]).append(' ');
+                    }
+                    return JournalResponse.builder()
+                            .id(i).title("Title " + i).message(sb.substring(0, messageLength))
+                            .createdAt(now).lastModifiedAt(now).userId(42L).version(1L)
+                            .build();
+                })
+                .toList();
+        page = new PagedModel<>(new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000));
+
+        encoded = mapper.writeValueAsBytes(page);
+        System.out.printf("%n[wire] format=%s pageSize=%d messageLength=%d raw=%d bytes gzip=%d bytes%n",
+                format, pageSize, messageLength, encoded.length, gzip(encoded).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeAndGzip() throws IOException {
+        return gzip(mapper.writeValueAsBytes(page));
+    }
+
+    // PagedModel has no Jackson creator, so parse to a tree: the decode cost clients pay per format
+    @Benchmark
+    public Object parse() throws IOException {
+        return mapper.readTree(encoded);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,67 @@
+package com.sb.journalApp.mapper;
+
+import com.sb.journalApp.dto.JournalPatchRequest;
+import com.sb.journalApp.dto.JournalResponse;
+import com.sb.journalApp.dto.UserResponse;
+import com.sb.journalApp.model.Journal;
+import com.sb.journalApp.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"10", "10000"})
+    int journalCount;
+
+    @Param({"200", "20000"})
+    int messageLength;
+
+    private Journal journal;
+    private JournalPatchRequest patch;
+    private User user;
+    private List<Long> journalIds;
+
+    @Setup
+    public void setUp() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        user = User.builder().id(42L).name("Bench User").username("benchuser").password("x").build();
+        journal = Journal.builder()
+                .id(1L)
+                .user(user)
+                .title("Benchmark title")
+                .message("x".repeat(messageLength))
+                .createdAt(now)
+                .lastModifiedAt(now)
+                .version(3L)
+                .build();
+        patch = JournalPatchRequest.builder().title("Patched title").message("y".repeat(messageLength)).build();
+        journalIds = LongStream.rangeClosed(1, journalCount).boxed().toList();
+    }
+
+    @Benchmark
+    public JournalResponse journalToDto() {
+        return JournalMapper.toDto(journal);
+    }
+
+    @Benchmark
+    public Journal journalPatchEntity() {
+        JournalMapper.patchEntity(journal, patch);
+        return journal;
+    }
+
+    @Benchmark
+    public UserResponse userToDto() {
+        return UserMapper.toDto(user, journalIds);
+    }
+}
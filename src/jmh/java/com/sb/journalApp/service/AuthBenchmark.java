@@ -0,0 +1,45 @@
+package com.sb.journalApp.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Cost of Auth.currentUserId(), which every authenticated service call pays at least once. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthBenchmark {
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.now();
+        Jwt jwt = Jwt.withTokenValue("bench")
+                .header("alg", "HS256")
+                .subject("benchuser")
+                .claim("uid", 42L)
+                .claim("roles", List.of("USER"))
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(3600))
+                .build();
+        // SecurityContextHolder is thread-local by default and Scope.Thread keeps setup on the measuring thread
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Long currentUserId() {
+        return Auth.currentUserId();
+    }
+}
@@ -0,0 +1,256 @@
+package com.sb.journalApp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the full app on a random port against a throwaway Postgres, seeds users + journals,
+ * then replays a weighted mix of login/create/list/get/patch/delete at a fixed arrival rate.
+ * Latency is measured from each request's scheduled start (no coordinated omission), reported
+ * per endpoint, written to target/loadtest-result.json and gated against the committed baseline
+ * (latency and error rate). -Dloadtest.recordBaseline=true overwrites the baseline instead.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class JournalApiLoadTest {
+
+    private static final String PASSWORD = "LoadT3st!pass";
+
+    // op -> relative weight; roughly a read-heavy mobile client
+    private static final String[] OPS =     { "login", "create", "list", "get", "patch", "delete" };
+    private static final int[] OP_WEIGHTS = {  2,       13,       30,     40,    10,      5 };
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("app.jwt.secret", () -> "loadtest-secret-that-is-at-least-32-characters");
+        registry.add("app.rate-limit.enabled", () -> "false"); // every virtual user logs in from one IP
+    }
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private static final class VirtualUser {
+        final String username;
+        volatile String token;
+        final List<Long> journalIds = new ArrayList<>();
+
+        VirtualUser(String username) { this.username = username; }
+
+        synchronized Long randomJournal(boolean remove) {
+            if (journalIds.isEmpty()) return null;
+            int i = ThreadLocalRandom.current().nextInt(journalIds.size());
+            return remove ? journalIds.remove(i) : journalIds.get(i);
+        }
+
+        synchronized void addJournal(Long id) { journalIds.add(id); }
+    }
+
+    @Test
+    void replayMixAndGateOnLatency() throws Exception {
+        int rps = Integer.getInteger("loadtest.rps", 2000);
+        int durationSeconds = Integer.getInteger("loadtest.durationSeconds", 60);
+        int warmupSeconds = Integer.getInteger("loadtest.warmupSeconds", 10);
+        int userCount = Integer.getInteger("loadtest.users", 200);
+        int journalsPerUser = Integer.getInteger("loadtest.journalsPerUser", 200);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 256);
+        Path baseline = Path.of(System.getProperty("loadtest.baseline", "src/loadtest/resources/loadtest-baseline.json"));
+        boolean recordBaseline = Boolean.getBoolean("loadtest.recordBaseline");
+        double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.20"));
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.maxErrorRate", "0.01"));
+        // checked before the (long) run so a misconfigured gate fails in seconds, not minutes
+        assertTrue(recordBaseline || Files.exists(baseline),
+                "No load test baseline at " + baseline.toAbsolutePath()
+                        + "; record one with -Dloadtest.recordBaseline=true or point -Dloadtest.baseline at it");
+
+        List<VirtualUser> users = seed(userCount, journalsPerUser);
+        for (VirtualUser u : users) login(u);
+
+        run(users, rps, warmupSeconds, concurrency);           // JIT, pools, caches; discarded
+        LatencyReport report = run(users, rps, durationSeconds, concurrency);
+
+        Map<String, Map<String, Object>> summary = report.summarize(durationSeconds);
+        String label = System.getProperty("loadtest.label", "");
+        Path out = Path.of("target", label.isBlank() ? "loadtest-result.json" : "loadtest-result-" + label + ".json");
+        report.write(summary, out);
+        summary.forEach((endpoint, row) -> System.out.println("[loadtest] " + endpoint + " " + row));
+        System.out.println("[loadtest] wrote " + out.toAbsolutePath());
+
+        if (recordBaseline) {
+            report.write(summary, baseline);
+            System.out.println("[loadtest] recorded new baseline " + baseline.toAbsolutePath() + " (not gated)");
+            return;
+        }
+        List<String> failures = report.regressions(summary, baseline, tolerance, maxErrorRate);
+        assertTrue(failures.isEmpty(), "Load test regressed past baseline:\n" + String.join("\n", failures));
+    }
+
+    // Direct SQL seeding: one BCrypt hash shared by every user, journals via generate_series.
+    private List<VirtualUser> seed(int userCount, int journalsPerUser) {
+        String hash = passwordEncoder.encode(PASSWORD);
+        List<VirtualUser> users = new ArrayList<>(userCount);
+        List<Object[]> rows = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            String username = "loaduser" + toLetters(i);
+            users.add(new VirtualUser(username));
+            rows.add(new Object[] { "Load User " + i, username, hash });
+        }
+        jdbc.batchUpdate("insert into users (name, username, password) values (?, ?, ?)", rows);
+        jdbc.update("""
+                insert into journals (title, message, created_at, last_modified_at, user_id)
+                select 'Seed ' || g, repeat('lorem ipsum dolor sit amet ', 20 + (g % 40)),
+                       now() - (g || ' minutes')::interval, now(), u.id
+                  from users u cross join generate_series(1, ?) g
+                """, journalsPerUser);
+        for (VirtualUser u : users) {
+            jdbc.queryForList("select j.id from journals j join users u on u.id = j.user_id where u.username = ?",
+                    Long.class, u.username).forEach(u::addJournal);
+        }
+        return users;
+    }
+
+    // usernames must be letters only (UserRequest pattern)
+    private static String toLetters(int n) {
+        StringBuilder sb = new StringBuilder();
+        do { sb.append((char) ('a' + n % 26)); n /= 26; } while (n > 0);
+        return sb.toString();
+    }
+
+    private LatencyReport run(List<VirtualUser> users, int rps, int seconds, int concurrency) throws InterruptedException {
+        LatencyReport report = new LatencyReport();
+        long interval = TimeUnit.SECONDS.toNanos(1) / rps;
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong slot = new AtomicLong();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            workers.submit(() -> {
+                while (true) {
+                    long intended = start + slot.getAndIncrement() * interval;
+                    if (intended >= end) return null;
+                    long wait = intended - System.nanoTime();
+                    if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+
+                    VirtualUser u = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+                    String op = pickOp();
+                    boolean ok;
+                    try {
+                        ok = execute(op, u);
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    report.record(op, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended), ok);
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(seconds + 120L, TimeUnit.SECONDS);
+        return report;
+    }
+
+    private static String pickOp() {
+        int total = 0;
+        for (int w : OP_WEIGHTS) total += w;
+        int r = ThreadLocalRandom.current().nextInt(total);
+        for (int i = 0; i < OPS.length; i++) {
+            r -= OP_WEIGHTS[i];
+            if (r < 0) return OPS[i];
+        }
+        return OPS[OPS.length - 1];
+    }
+
+    private boolean execute(String op, VirtualUser u) throws Exception {
+        switch (op) {
+            case "login":
+                return login(u);
+            case "create": {
+                HttpResponse<String> res = send(u, "POST", "/api/journals",
+                        "{\"title\":\"Load\",\"message\":\"created under load\"}");
+                if (res.statusCode() != 201) return false;
+                u.addJournal(json.readTree(res.body()).get("id").asLong());
+                return true;
+            }
+            case "list":
+                return send(u, "GET", "/api/journals?page=0&size=10", null).statusCode() == 200;
+            case "get": {
+                Long id = u.randomJournal(false);
+                return id == null || send(u, "GET", "/api/journals/" + id, null).statusCode() == 200;
+            }
+            case "patch": {
+                Long id = u.randomJournal(false);
+                return id == null || send(u, "PATCH", "/api/journals/" + id, "{\"title\":\"Patched\"}").statusCode() == 200;
+            }
+            case "delete": {
+                Long id = u.randomJournal(true);
+                return id == null || send(u, "DELETE", "/api/journals/" + id, null).statusCode() == 204;
+            }
+            default:
+                throw new IllegalStateException(op);
+        }
+    }
+
+    private boolean login(VirtualUser u) throws Exception {
+        HttpResponse<String> res = send(null, "POST", "/api/auth/login",
+                "{\"username\":\"" + u.username + "\",\"password\":\"" + PASSWORD + "\"}");
+        if (res.statusCode() != 200) return false;
+        JsonNode body = json.readTree(res.body());
+        u.token = body.get("accessToken").asText();
+        return true;
+    }
+
+    private HttpResponse<String> send(VirtualUser u, String method, String path, String body) throws Exception {
+        HttpRequest.Builder req = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (body != null) req.header("Content-Type", "application/json");
+        if (u != null) req.header("Authorization", "Bearer " + u.token);
+        return http.send(req.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
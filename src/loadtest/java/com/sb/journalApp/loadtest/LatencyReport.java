@@ -0,0 +1,88 @@
+package com.sb.journalApp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Per-endpoint latency histograms (microseconds), JSON output and baseline comparison. */
+class LatencyReport {
+
+    private static final long MAX_TRACKABLE_MICROS = 60_000_000L;
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final ObjectMapper json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    void record(String endpoint, long micros, boolean ok) {
+        histograms.computeIfAbsent(endpoint, k -> new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3))
+                .recordValue(Math.min(Math.max(micros, 0), MAX_TRACKABLE_MICROS));
+        if (!ok) errors.computeIfAbsent(endpoint, k -> new LongAdder()).increment();
+    }
+
+    Map<String, Map<String, Object>> summarize(double elapsedSeconds) {
+        Map<String, Map<String, Object>> out = new LinkedHashMap<>();
+        histograms.keySet().stream().sorted().forEach(endpoint -> {
+            Histogram h = histograms.get(endpoint);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("count", h.getTotalCount());
+            long failed = errors.getOrDefault(endpoint, new LongAdder()).sum();
+            row.put("errors", failed);
+            row.put("errorRate", h.getTotalCount() == 0 ? 0.0 : Math.round(failed * 10_000.0 / h.getTotalCount()) / 10_000.0);
+            row.put("throughputRps", Math.round(h.getTotalCount() / elapsedSeconds * 10) / 10.0);
+            row.put("p50Micros", h.getValueAtPercentile(50));
+            row.put("p99Micros", h.getValueAtPercentile(99));
+            row.put("p999Micros", h.getValueAtPercentile(99.9));
+            row.put("maxMicros", h.getMaxValue());
+            out.put(endpoint, row);
+        });
+        return out;
+    }
+
+    void write(Map<String, Map<String, Object>> summary, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        json.writeValue(file.toFile(), summary);
+    }
+
+    /**
+     * Regressions against a stored baseline: any endpoint whose error rate exceeds
+     * maxErrorRate (or the baseline's own "maxErrorRate" for it), or whose p99 or p999 exceeds
+     * baseline * (1 + tolerance). The error rate is checked for every endpoint; latency only
+     * for endpoints in the baseline. Errors are gated first because failing fast looks fast.
+     */
+    List<String> regressions(Map<String, Map<String, Object>> summary, Path baseline, double tolerance,
+                             double maxErrorRate) throws IOException {
+        List<String> failures = new ArrayList<>();
+        JsonNode base = json.readTree(baseline.toFile());
+        summary.forEach((endpoint, row) -> {
+            JsonNode b = base.get(endpoint);
+            long count = ((Number) row.get("count")).longValue();
+            long failed = ((Number) row.get("errors")).longValue();
+            double allowed = b != null && b.has("maxErrorRate") ? b.get("maxErrorRate").asDouble() : maxErrorRate;
+            if (count > 0 && (double) failed / count > allowed) {
+                failures.add(endpoint + " errors: " + failed + "/" + count + " > " + Math.round(allowed * 1000) / 10.0 + "%");
+            }
+            if (b == null) return;
+            for (String metric : List.of("p99Micros", "p999Micros")) {
+                long limit = Math.round(b.path(metric).asLong() * (1 + tolerance));
+                long actual = ((Number) row.get(metric)).longValue();
+                if (limit > 0 && actual > limit) {
+                    failures.add(endpoint + " " + metric + ": " + actual + "us > " + limit + "us (baseline "
+                            + b.path(metric).asLong() + "us +" + Math.round(tolerance * 100) + "%)");
+                }
+            }
+        });
+        return failures;
+    }
+}
@@ -0,0 +1,36 @@
+package com.sb.journalApp.config;
+
+import com.sb.journalApp.service.UserTombstones;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Rejects (401) otherwise valid access tokens of deleted users, so nothing a token allows -
+ * journal reads, batch, import - keeps working for the rest of its lifetime. Sits outside the
+ * verified-token cache: the signature check is cached per token, this one per uid.
+ */
+class ActiveUserJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final UserTombstones tombstones;
+
+    ActiveUserJwtDecoder(JwtDecoder delegate, UserTombstones tombstones) {
+        this.delegate = delegate;
+        this.tombstones = tombstones;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        Jwt jwt = delegate.decode(token);
+        Object uid = jwt.getClaim("uid");
+        if (uid != null) {
+            long id = uid instanceof Number n ? n.longValue() : Long.parseLong(uid.toString());
+            if (tombstones.isDeleted(id)) {
+                throw new BadJwtException("User has been deleted");
+            }
+        }
+        return jwt;
+    }
+}
@@ -2,11 +2,15 @@ package com.sb.journalApp.config;
 
 
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.*;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 public class ApiExceptionHandler {
@@ -29,6 +33,38 @@ public class ApiExceptionHandler {
         ));
     }
 
+    // pool/limiter exhausted: tell the client to back off rather than report a server error.
+    // Only connection acquisition; lock conflicts and query timeouts are not "busy".
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<Map<String,Object>> unavailable(Exception ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of(
+                        "error", "SERVICE_UNAVAILABLE",
+                        "message", "Database busy, retry shortly"
+                ));
+    }
+
+    // password-hashing pool full (login/signup burst): shed load instead of queueing forever
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String,Object>> busy(RejectedExecutionException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "2")
+                .body(Map.of(
+                        "error", "SERVICE_UNAVAILABLE",
+                        "message", "Too many concurrent sign-ins, retry shortly"
+                ));
+    }
+
+    // concurrent JPA write to the same row; same answer as a stale If-Match
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String,Object>> modified(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(Map.of(
+                "error", "PRECONDITION_FAILED",
+                "message", "Resource was modified; re-fetch and retry"
+        ));
+    }
+
     @ExceptionHandler(org.springframework.dao.DataIntegrityViolationException.class)
     public ResponseEntity<Map<String,Object>> conflict(DataIntegrityViolationException ex) {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
@@ -0,0 +1,17 @@
+package com.sb.journalApp.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caffeine caches (size + TTL bound, see spring.cache in application.yml).
+ * They hold DTO snapshots, never JPA entities, so nothing cached is attached to a session.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    /** userId -> UserResponse without journalIds (profile only). */
+    public static final String USERS = "users";
+    /** journalId -> JournalResponse. */
+    public static final String JOURNALS = "journals";
+}
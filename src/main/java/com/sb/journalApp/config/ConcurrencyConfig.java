@@ -0,0 +1,39 @@
+package com.sb.journalApp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Opt-in virtual-thread mode. spring.threads.virtual.enabled=true makes Boot run Tomcat requests
+ * and @Async tasks on virtual threads; this adds the DB limiter those threads need in front of
+ * the small Hikari pool.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling // background jobs (e.g. DbHealthService refresh)
+public class ConcurrencyConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.db.limiter.enabled", havingValue = "true")
+    static BeanPostProcessor dbConcurrencyLimiter(
+            @Value("${app.db.limiter.max-concurrent:${spring.datasource.hikari.maximumPoolSize:10}}") int maxConcurrent,
+            @Value("${app.db.limiter.acquire-timeout:2s}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource ds && !(bean instanceof ConcurrencyLimitingDataSource)) {
+                    return new ConcurrencyLimitingDataSource(ds, maxConcurrent, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.sb.journalApp.config;
+
+import com.sb.journalApp.service.DbHealthService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Replaces Boot's default "db" indicator (bean name dbHealthIndicator), which borrows a pool
+ * connection and runs a validation query on every /actuator/health call. This one reports the
+ * cached DbHealthService snapshot plus live Hikari counters, neither of which touches the DB.
+ * A saturated pool is reported in the details but stays UP: flipping readiness while the pool is
+ * busy would only shift the same load onto the other instances.
+ */
+@Component("dbHealthIndicator")
+class DbHealthIndicator implements HealthIndicator {
+
+    private final DbHealthService dbHealthService;
+    private final DataSource dataSource;
+
+    DbHealthIndicator(DbHealthService dbHealthService, DataSource dataSource) {
+        this.dbHealthService = dbHealthService;
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public Health health() {
+        Map<String, Object> snapshot = dbHealthService.health();
+        Health.Builder builder = new Health.Builder(new Status(String.valueOf(snapshot.get("status"))));
+        snapshot.forEach((k, v) -> {
+            if (!"status".equals(k)) builder.withDetail(k, v);
+        });
+
+        HikariPoolMXBean pool = hikariPool();
+        if (pool != null) {
+            int waiting = pool.getThreadsAwaitingConnection();
+            builder.withDetail("pool", Map.of(
+                    "active", pool.getActiveConnections(),
+                    "idle", pool.getIdleConnections(),
+                    "total", pool.getTotalConnections(),
+                    "max", maxPoolSize(),
+                    "threadsAwaiting", waiting,
+                    "saturated", waiting > 0));
+        }
+        return builder.build();
+    }
+
+    // unwrap() sees through the optional ConcurrencyLimitingDataSource; null until the pool starts
+    private HikariPoolMXBean hikariPool() {
+        try {
+            return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private int maxPoolSize() {
+        try {
+            return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        } catch (SQLException e) {
+            return -1;
+        }
+    }
+}
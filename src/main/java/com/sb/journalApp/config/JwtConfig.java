@@ -1,5 +1,9 @@
 package com.sb.journalApp.config;
 
+import com.sb.journalApp.service.UserTombstones;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,7 +27,22 @@ public class JwtConfig {
         return new NimbusJwtEncoder(source);
     }
     @Bean
-    JwtDecoder jwtDecoder(@Value("${app.jwt.secret}") String secret) {
+    JwtDecoder jwtDecoder(@Value("${app.jwt.secret}") String secret,
+                          @Value("${app.jwt.cache.enabled:true}") boolean cacheEnabled,
+                          @Value("${app.jwt.cache.max-size:10000}") long cacheMaxSize,
+                          ObjectProvider<MeterRegistry> meterRegistry,
+                          UserTombstones tombstones) {
+        var nimbus = nimbusJwtDecoder(secret);
+        if (!cacheEnabled) {
+            return new ActiveUserJwtDecoder(nimbus, tombstones);
+        }
+        // same token is re-sent many times per hour; skip re-verifying it until it expires
+        var cached = new CachingJwtDecoder(nimbus, cacheMaxSize);
+        meterRegistry.ifAvailable(r -> CaffeineCacheMetrics.monitor(r, cached.cache(), "jwt.decoder"));
+        return new ActiveUserJwtDecoder(cached, tombstones);
+    }
+
+    static JwtDecoder nimbusJwtDecoder(String secret) {
         var key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
         return NimbusJwtDecoder.withSecretKey(key)
                 .macAlgorithm(MacAlgorithm.HS256)
@@ -0,0 +1,38 @@
+package com.sb.journalApp.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Service timers (@Timed on JournalService/UserService) and per-request Hibernate query counts.
+ * Percentiles/histograms are set per meter name under management.metrics.distribution.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.metrics.query-count.enabled", havingValue = "true", matchIfMissing = true)
+    HibernatePropertiesCustomizer queryCountInspector() {
+        return props -> props.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountInspector());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.metrics.query-count.enabled", havingValue = "true", matchIfMissing = true)
+    FilterRegistrationBean<QueryCountFilter> queryCountFilter(MeterRegistry registry) {
+        var reg = new FilterRegistrationBean<>(new QueryCountFilter(registry));
+        reg.setOrder(Ordered.HIGHEST_PRECEDENCE + 10); // wrap security + MVC so every statement is seen
+        return reg;
+    }
+}
@@ -0,0 +1,23 @@
+package com.sb.journalApp.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts SQL statements Hibernate prepares on the current thread. It never rewrites SQL;
+ * {@link QueryCountFilter} resets and reads the counter around each request.
+ * JdbcTemplate-based paths (export/import/search) bypass Hibernate and are not counted.
+ */
+class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    static void reset() { COUNT.get()[0] = 0; }
+
+    static int current() { return COUNT.get()[0]; }
+}
@@ -0,0 +1,68 @@
+package com.sb.journalApp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Endpoint groups for RateLimitFilter, most specific first. Each group's rate (tokens/second)
+ * and burst come from app.rate-limit.&lt;group&gt;.*.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    private static final Set<String> BULK_PATHS = Set.of("/api/journals/export", "/api/journals/import", "/api/journals/batch");
+
+    @Bean
+    FilterRegistrationBean<RateLimitFilter> rateLimitFilter(Environment env, MeterRegistry registry,
+                                                            @Value("${app.rate-limit.idle-expiry:10m}") Duration idleExpiry,
+                                                            @Value("${app.rate-limit.max-keys:100000}") long maxKeys) {
+        List<RateLimitFilter.Group> groups = List.of(
+                group(env, "auth", true, idleExpiry, maxKeys, r -> isPost(r)
+                        && (path(r).startsWith("/api/auth/") || path(r).equals("/api/users"))),
+                group(env, "bulk", false, idleExpiry, maxKeys, r -> BULK_PATHS.contains(path(r))),
+                group(env, "writes", false, idleExpiry, maxKeys, r -> isApi(r) && !isRead(r)),
+                group(env, "reads", false, idleExpiry, maxKeys, r -> isApi(r) && isRead(r)));
+
+        var reg = new FilterRegistrationBean<>(new RateLimitFilter(groups, registry));
+        reg.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 10); // after security: the JWT uid is known
+        return reg;
+    }
+
+    private static RateLimitFilter.Group group(Environment env, String name, boolean byIp, Duration idleExpiry,
+                                               long maxKeys, Predicate<HttpServletRequest> matches) {
+        double rate = env.getRequiredProperty("app.rate-limit." + name + ".rate", Double.class);
+        int burst = env.getRequiredProperty("app.rate-limit." + name + ".burst", Integer.class);
+        return new RateLimitFilter.Group(name, matches, byIp, new TokenBucketLimiter(rate, burst, idleExpiry, maxKeys));
+    }
+
+    private static String path(HttpServletRequest r) {
+        return r.getRequestURI().substring(r.getContextPath().length());
+    }
+
+    private static boolean isApi(HttpServletRequest r) {
+        String path = path(r);
+        return path.startsWith("/api/") && !path.startsWith("/api/health");
+    }
+
+    private static boolean isPost(HttpServletRequest r) {
+        return "POST".equals(r.getMethod());
+    }
+
+    private static boolean isRead(HttpServletRequest r) {
+        String m = r.getMethod();
+        return "GET".equals(m) || "HEAD".equals(m) || "OPTIONS".equals(m);
+    }
+}
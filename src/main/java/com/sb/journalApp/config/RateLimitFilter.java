@@ -0,0 +1,78 @@
+package com.sb.journalApp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Per-client token buckets in front of the API, so one client can't monopolize the DB pool.
+ * Runs after the security chain: authenticated requests are keyed by JWT uid, public auth
+ * endpoints (login, sign-up, refresh) by client IP. The first matching group decides; a request
+ * over its limit gets 429 with Retry-After and never reaches a controller.
+ */
+class RateLimitFilter extends OncePerRequestFilter {
+
+    record Group(String name, Predicate<HttpServletRequest> matches, boolean byIp, TokenBucketLimiter limiter) {}
+
+    private final List<Group> groups;
+    private final MeterRegistry registry;
+
+    RateLimitFilter(List<Group> groups, MeterRegistry registry) {
+        this.groups = groups;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        for (Group group : groups) {
+            if (!group.matches().test(request)) continue;
+            long waitNanos = group.limiter().tryAcquire(keyOf(request, group.byIp()));
+            if (waitNanos > 0) {
+                reject(response, group, waitNanos);
+                return;
+            }
+            break;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static Object keyOf(HttpServletRequest request, boolean byIp) {
+        if (!byIp) {
+            var authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt) {
+                Object uid = jwt.getClaim("uid");
+                if (uid != null) return uid;
+            }
+        }
+        return request.getRemoteAddr(); // set server.forward-headers-strategy behind a proxy
+    }
+
+    private void reject(HttpServletResponse response, Group group, long waitNanos) throws IOException {
+        Counter.builder("http.server.requests.rate_limited")
+                .description("Requests rejected with 429 by the per-client token buckets")
+                .tag("group", group.name())
+                .register(registry)
+                .increment();
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"TOO_MANY_REQUESTS\",\"message\":\"Rate limit exceeded for "
+                + group.name() + ", retry in " + seconds + "s\"}");
+    }
+}
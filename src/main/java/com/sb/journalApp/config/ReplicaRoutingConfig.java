@@ -0,0 +1,89 @@
+package com.sb.journalApp.config;
+
+import com.sb.journalApp.service.Auth;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opt-in primary/replica split (app.replica.enabled=true). Replaces Boot's single pool with a
+ * LazyConnectionDataSourceProxy: the physical connection is only fetched at the first statement,
+ * by which point the transaction's readOnly flag is known, so @Transactional(readOnly = true)
+ * work goes to a replica and everything else to the primary. Replica pools reuse the primary's
+ * spring.datasource.* settings and credentials; only the JDBC URL and the connection timeout
+ * differ (a replica that is down should cost a read about a second, not the primary's 30s).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    DataSource dataSource(DataSourceProperties properties,
+                          Environment environment,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.replica.urls}") List<String> replicaUrls,
+                          @Value("${app.replica.retry-after:30s}") Duration retryAfter,
+                          @Value("${app.replica.connection-timeout:1s}") Duration connectionTimeout,
+                          @Value("${app.replica.read-your-writes:5s}") Duration readYourWrites) {
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) continue;
+            HikariConfig config = new HikariConfig();
+            primary.copyStateTo(config);
+            config.setJdbcUrl(url.trim());
+            config.setPoolName("replica-" + (replicas.size() + 1));
+            config.setConnectionTimeout(connectionTimeout.toMillis());
+            config.setValidationTimeout(Math.min(config.getValidationTimeout(), connectionTimeout.toMillis()));
+            config.setReadOnly(true); // a write that is routed here by mistake fails loudly
+            config.setInitializationFailTimeout(-1); // a replica that is down at boot must not stop the app
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new HikariDataSource(config));
+        }
+        if (replicas.isEmpty()) {
+            primary.close();
+            throw new IllegalStateException("app.replica.enabled=true but app.replica.urls is empty");
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.<DataSource>copyOf(replicas), retryAfter,
+                readYourWrites, Auth::currentUserIdIfPresent, meterRegistry);
+        List<HikariDataSource> pools = new ArrayList<>(replicas);
+        pools.add(primary);
+        return new RoutingProxy(routing, pools);
+    }
+
+    /** The proxy Boot sees as "the" DataSource; closing it (context shutdown) closes every pool behind it. */
+    static final class RoutingProxy extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+        private final List<HikariDataSource> pools;
+
+        RoutingProxy(ReplicaRoutingDataSource routing, List<HikariDataSource> pools) {
+            super(routing.writes());
+            setReadOnlyDataSource(routing);
+            this.pools = pools;
+        }
+
+        @Override
+        public void close() {
+            pools.forEach(HikariDataSource::close);
+        }
+    }
+}
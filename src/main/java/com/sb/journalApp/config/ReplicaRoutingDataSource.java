@@ -0,0 +1,106 @@
+package com.sb.journalApp.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read side of the primary/replica split; installed as the read-only data source of a
+ * LazyConnectionDataSourceProxy, so it only sees connections of readOnly transactions.
+ * Replicas are used round-robin. A replica that fails to hand out a connection is skipped for
+ * {@code retryAfter} and the read falls back to the next one, then to the primary. A user who
+ * wrote within the last {@code readYourWrites} reads from the primary, so they see their own
+ * change despite replication lag.
+ */
+public class ReplicaRoutingDataSource extends DelegatingDataSource {
+
+    private static final class Replica {
+        final DataSource pool;
+        final AtomicLong downUntilNanos = new AtomicLong();
+
+        Replica(DataSource pool) { this.pool = pool; }
+
+        boolean isUp(long now) { return now - downUntilNanos.get() >= 0; }
+    }
+
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final long retryAfterNanos;
+    private final Supplier<Optional<Long>> currentUser;
+    private final Cache<Long, Boolean> recentWriters; // null when read-your-writes is off
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration retryAfter,
+                                    Duration readYourWrites, Supplier<Optional<Long>> currentUser,
+                                    MeterRegistry meterRegistry) {
+        super(primary); // unwrap()/getLogWriter() etc. go to the primary pool
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.retryAfterNanos = retryAfter.toNanos();
+        this.currentUser = currentUser;
+        this.recentWriters = readYourWrites.isZero() ? null
+                : Caffeine.newBuilder().expireAfterWrite(readYourWrites).maximumSize(100_000).build();
+        this.replicaReads = Counter.builder("db.routing.reads").tag("target", "replica").register(meterRegistry);
+        this.primaryReads = Counter.builder("db.routing.reads").tag("target", "primary").register(meterRegistry);
+        this.fallbacks = Counter.builder("db.routing.replica.failures")
+                .description("Replica connection failures that fell back to another pool")
+                .register(meterRegistry);
+    }
+
+    /** Data source for read-write connections: the primary, remembering the caller as a recent writer. */
+    public DataSource writes() {
+        return new DelegatingDataSource(obtainTargetDataSource()) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                noteWrite();
+                return super.getConnection();
+            }
+        };
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!mustReadPrimary()) {
+            long now = System.nanoTime();
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (!replica.isUp(now)) continue;
+                try {
+                    Connection con = replica.pool.getConnection();
+                    replicaReads.increment();
+                    return con;
+                } catch (SQLException e) {
+                    replica.downUntilNanos.set(now + retryAfterNanos);
+                    fallbacks.increment();
+                }
+            }
+        }
+        primaryReads.increment();
+        return obtainTargetDataSource().getConnection();
+    }
+
+    private boolean mustReadPrimary() {
+        if (recentWriters == null) return false;
+        return currentUser.get().map(uid -> recentWriters.getIfPresent(uid) != null).orElse(false);
+    }
+
+    private void noteWrite() {
+        if (recentWriters != null) {
+            currentUser.get().ifPresent(uid -> recentWriters.put(uid, Boolean.TRUE));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.sb.journalApp.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Accepts request bodies sent with Content-Encoding: gzip or deflate (e.g. a compressed NDJSON
+ * import). The body is inflated as it is read, never buffered, and capped at {@code maxBytes}
+ * inflated so a small compressed upload can't expand without bound (413). A body that isn't
+ * valid gzip/deflate is a 400. Reads are blocking only: Spring MVC never registers a
+ * ReadListener, and inflating can't promise a non-blocking read, so setReadListener is refused.
+ */
+class RequestDecompressionFilter extends OncePerRequestFilter {
+
+    private final long maxBytes;
+
+    RequestDecompressionFilter(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (encoding == null || encoding.isBlank() || encoding.equalsIgnoreCase("identity")) {
+            chain.doFilter(request, response);
+            return;
+        }
+        InputStream inflated;
+        try {
+            switch (encoding.trim().toLowerCase()) {
+                // GZIPInputStream reads and checks the gzip header right here
+                case "gzip", "x-gzip" -> inflated = new GZIPInputStream(request.getInputStream(), 8192);
+                case "deflate" -> inflated = new InflaterInputStream(request.getInputStream());
+                default -> {
+                    response.sendError(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value(), "Unsupported Content-Encoding: " + encoding);
+                    return;
+                }
+            }
+        } catch (ZipException | EOFException e) { // empty body or not gzip at all
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Malformed " + encoding + " request body");
+            return;
+        }
+        chain.doFilter(new DecompressedRequest(request, new Limited(inflated, maxBytes)), response);
+    }
+
+    private static final class DecompressedRequest extends HttpServletRequestWrapper {
+        private final ServletInputStream body;
+
+        DecompressedRequest(HttpServletRequest request, InputStream body) {
+            super(request);
+            this.body = new ServletInputStream() {
+                private boolean finished;
+
+                @Override
+                public int read() throws IOException {
+                    int b = body.read();
+                    if (b < 0) finished = true;
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int n = body.read(b, off, len);
+                    if (n < 0) finished = true;
+                    return n;
+                }
+
+                @Override public boolean isFinished() { return finished; }
+                @Override public boolean isReady() { return true; } // blocking stream: a read always makes progress
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new IllegalStateException("Non-blocking reads are not supported for Content-Encoding compressed bodies");
+                }
+            };
+        }
+
+        @Override public ServletInputStream getInputStream() { return body; }
+
+        // the inflated length isn't known up front, and downstream must not see the encoding again
+        @Override public int getContentLength() { return -1; }
+        @Override public long getContentLengthLong() { return -1; }
+
+        @Override
+        public String getHeader(String name) {
+            if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) return null;
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) return null;
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                return Collections.emptyEnumeration();
+            }
+            return super.getHeaders(name);
+        }
+    }
+
+    private static final class Limited extends InputStream {
+        private final InputStream in;
+        private long remaining;
+
+        Limited(InputStream in, long limit) {
+            this.in = in;
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b;
+            try {
+                b = in.read();
+            } catch (ZipException | EOFException e) {
+                throw malformed(e);
+            }
+            if (b >= 0) consumed(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n;
+            try {
+                n = in.read(b, off, len);
+            } catch (ZipException | EOFException e) {
+                throw malformed(e);
+            }
+            if (n > 0) consumed(n);
+            return n;
+        }
+
+        // corrupt or truncated mid-stream: the client's fault, same as a bad header
+        private static ResponseStatusException malformed(IOException e) {
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed compressed request body", e);
+        }
+
+        private void consumed(int n) {
+            remaining -= n;
+            if (remaining < 0) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Decompressed request body too large");
+            }
+        }
+
+        @Override
+        public void close() throws IOException { in.close(); }
+    }
+}
@@ -0,0 +1,39 @@
+package com.sb.journalApp.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket per key, in its GCRA form: the whole bucket is one "theoretical arrival
+ * time" in an AtomicLong, updated by CAS, so an allowed request is one cache lookup plus one CAS.
+ * Refills at {@code permitsPerSecond} and allows bursts of {@code burst}. Idle keys expire, so
+ * memory tracks active clients, not every client ever seen.
+ */
+class TokenBucketLimiter {
+
+    private final long intervalNanos;   // one token's worth of time
+    private final long toleranceNanos;  // how far ahead of now the bucket may run (= burst - 1 tokens)
+    private final Cache<Object, AtomicLong> buckets;
+
+    TokenBucketLimiter(double permitsPerSecond, int burst, Duration idleExpiry, long maxKeys) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+        this.buckets = Caffeine.newBuilder().expireAfterAccess(idleExpiry).maximumSize(maxKeys).build();
+    }
+
+    /** 0 if the request may proceed, otherwise nanos until the next token is available. */
+    long tryAcquire(Object key) {
+        long now = System.nanoTime();
+        AtomicLong tat = buckets.get(key, k -> new AtomicLong(now)); // new key = full bucket
+        for (;;) {
+            long current = tat.get();
+            long base = current - now < 0 ? now : current; // nanoTime may be negative: compare by difference
+            long wait = base - now - toleranceNanos;
+            if (wait > 0) return wait;
+            if (tat.compareAndSet(current, base + intervalNanos)) return 0;
+        }
+    }
+}
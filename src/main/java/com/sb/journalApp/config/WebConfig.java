@@ -1,11 +1,43 @@
 // src/main/java/com/sb/journalApp/config/WebConfig.java
 package com.sb.journalApp.config;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.data.web.config.EnableSpringDataWebSupport;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.unit.DataSize;
 
 @Configuration
 @EnableSpringDataWebSupport(
         pageSerializationMode = EnableSpringDataWebSupport.PageSerializationMode.VIA_DTO
 )
-public class WebConfig {}
+public class WebConfig {
+
+    // Binary alternatives to JSON, picked by Accept / Content-Type (application/cbor,
+    // application/x-jackson-smile). Built from Boot's builder so dates, modules and features
+    // match the JSON output exactly; only the encoding differs.
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    FilterRegistrationBean<RequestDecompressionFilter> requestDecompressionFilter(
+            @Value("${app.http.request-decompression.max-size:256MB}") DataSize maxSize) {
+        var reg = new FilterRegistrationBean<>(new RequestDecompressionFilter(maxSize.toBytes()));
+        reg.setOrder(Ordered.HIGHEST_PRECEDENCE + 20); // before anything reads the body
+        return reg;
+    }
+}
@@ -20,6 +20,7 @@ public class HealthController {
         return "Journal App Works!";
     }
 
+    // served from the background snapshot (see DbHealthService); no DB access per call
     @Operation(security = {})
     @GetMapping("/api/health/db")
     public Map<String, Object> dbHealth() {
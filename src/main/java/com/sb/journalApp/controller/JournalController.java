@@ -1,16 +1,39 @@
 package com.sb.journalApp.controller;
 
+import com.sb.journalApp.dto.CursorPage;
+import com.sb.journalApp.dto.ImportResult;
+import com.sb.journalApp.dto.JournalBatchRequest;
+import com.sb.journalApp.dto.JournalBatchResponse;
 import com.sb.journalApp.dto.JournalPatchRequest;
 import com.sb.journalApp.dto.JournalRequest;
 import com.sb.journalApp.dto.JournalResponse;
+import com.sb.journalApp.dto.JournalRevisionResponse;
+import com.sb.journalApp.dto.JournalRevisionSummary;
+import com.sb.journalApp.dto.JournalSearchHit;
+import com.sb.journalApp.dto.JournalStatsResponse;
+import com.sb.journalApp.service.Auth;
+import com.sb.journalApp.service.JournalBatchService;
+import com.sb.journalApp.service.JournalRevisionService;
+import com.sb.journalApp.service.JournalSearchService;
 import com.sb.journalApp.service.JournalService;
+import com.sb.journalApp.service.JournalStatsService;
+import com.sb.journalApp.service.JournalTransferService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.util.Optional;
+
 @Tag(name = "Journals", description = "Journal CRUD Operations")
 @RestController
 @RequestMapping("/api/journals")
@@ -18,6 +41,13 @@ import jakarta.validation.Valid;
 public class JournalController {
 
     private final JournalService journalService;
+    private final JournalTransferService journalTransferService;
+    private final JournalSearchService journalSearchService;
+    private final JournalBatchService journalBatchService;
+    private final JournalRevisionService journalRevisionService;
+    private final JournalStatsService journalStatsService;
+
+    private static final String NDJSON = "application/x-ndjson";
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -25,32 +55,123 @@ public class JournalController {
         return journalService.createJournal(journalRequest);
     }
 
+    // Conditional GET: a matching If-None-Match costs one version lookup and returns 304 with no body.
     @GetMapping("/{id}")
-    public JournalResponse getJournalById(@PathVariable Long id) {
-        return journalService.getJournalById(id);
+    public ResponseEntity<JournalResponse> getJournalById(@PathVariable Long id,
+                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<Long> version = journalService.getJournalVersion(id);
+            if (version.isPresent() && JournalEtags.noneMatchHits(ifNoneMatch, id, version.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(JournalEtags.of(id, version.get())).build();
+            }
+        }
+        return withEtag(journalService.getJournalById(id));
     }
 
-    // Pagination defaults keep responses lean; change size as you like
+    // Pagination defaults keep responses lean; change size as you like.
+    // view=summary returns title + preview only; fetch /{id} for the full message.
     @GetMapping
-    public Page<JournalResponse> getAllJournals(@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size) {
-        return journalService.getAllJournals(page, size);
+    public Page<?> getAllJournals(@RequestParam(defaultValue = "0") int page,
+                                  @RequestParam(defaultValue = "10") int size,
+                                  @RequestParam(defaultValue = "full") String view) {
+        return isSummary(view)
+                ? journalService.getAllJournalSummaries(page, size)
+                : journalService.getAllJournals(page, size);
+    }
+
+    // Cursor mode: pass cursor= (empty) for the first page, then echo back nextCursor.
+    // Latency stays flat however deep you go, and no total count is computed.
+    @GetMapping(params = "cursor")
+    public CursorPage<?> getAllJournalsByCursor(@RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "10") int size,
+                                                @RequestParam(defaultValue = "full") String view) {
+        return isSummary(view)
+                ? journalService.getJournalSummariesByCursor(cursor, size)
+                : journalService.getJournalsByCursor(cursor, size);
+    }
+
+    // Ranked full-text search over my journals; follow nextCursor for more results.
+    @GetMapping("/search")
+    public CursorPage<JournalSearchHit> searchJournals(@RequestParam String q,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "10") int size) {
+        return journalSearchService.search(q, cursor, size);
+    }
+
+    private static boolean isSummary(String view) {
+        if ("summary".equalsIgnoreCase(view)) return true;
+        if ("full".equalsIgnoreCase(view)) return false;
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "view must be 'full' or 'summary'");
+    }
+
+    // Streams every journal of the caller, one JSON object per line, straight off a DB cursor.
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportJournals() {
+        Long uid = Auth.currentUserId(); // the body is written on another thread
+        StreamingResponseBody body = out -> journalTransferService.exportNdjson(uid, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"journals.ndjson\"")
+                .body(body);
+    }
+
+    // Accepts the export format back (title/message required, timestamps optional).
+    // 400 with the result body when a bad line stopped it after some batches were committed.
+    @PostMapping(value = "/import", consumes = NDJSON)
+    public ResponseEntity<ImportResult> importJournals(HttpServletRequest request) throws IOException {
+        ImportResult result = journalTransferService.importNdjson(request.getInputStream());
+        return ResponseEntity.status(result.isComplete() ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST).body(result);
+    }
+
+    // Offline sync: many create/update/patch/delete ops in one round trip and one transaction.
+    // Always 200; check each result's status (version there works like the ETag version).
+    @PostMapping("/batch")
+    public JournalBatchResponse batch(@Valid @RequestBody JournalBatchRequest request) {
+        return journalBatchService.apply(request);
     }
 
+    // Totals, streaks and daily activity (UTC days), kept up to date on every write; days limits the activity list.
+    @GetMapping("/stats")
+    public JournalStatsResponse getStats(@RequestParam(defaultValue = "90") int days) {
+        return journalStatsService.getStats(days);
+    }
+
+    // History, newest first. Each version can be fetched in full below.
+    @GetMapping("/{id}/revisions")
+    public Page<JournalRevisionSummary> getRevisions(@PathVariable Long id,
+                                                     @RequestParam(defaultValue = "0") int page,
+                                                     @RequestParam(defaultValue = "20") int size) {
+        return journalRevisionService.list(id, page, size);
+    }
+
+    @GetMapping("/{id}/revisions/{version}")
+    public JournalRevisionResponse getRevision(@PathVariable Long id, @PathVariable long version) {
+        return journalRevisionService.reconstruct(id, version);
+    }
+
+    // Writes honor If-Match: a stale ETag gets 412 instead of silently overwriting someone else's edit.
     @PutMapping("/{id}")
-    public JournalResponse updateJournalById(@PathVariable Long id, @Valid @RequestBody JournalRequest journalRequest) {
-        return journalService.updateJournalById(id, journalRequest);
+    public ResponseEntity<JournalResponse> updateJournalById(@PathVariable Long id, @Valid @RequestBody JournalRequest journalRequest,
+                                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withEtag(journalService.updateJournalById(id, journalRequest, JournalEtags.expectedVersion(ifMatch, id)));
     }
 
     @PatchMapping("/{id}") // partial update
-    public JournalResponse patchJournalById(@PathVariable Long id,
-                                            @RequestBody JournalPatchRequest patch) {
-        return journalService.patchJournalById(id, patch);
+    public ResponseEntity<JournalResponse> patchJournalById(@PathVariable Long id,
+                                                            @RequestBody JournalPatchRequest patch,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withEtag(journalService.patchJournalById(id, patch, JournalEtags.expectedVersion(ifMatch, id)));
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteJournalById(@PathVariable Long id) {
-        journalService.deleteJournalById(id);
+    public void deleteJournalById(@PathVariable Long id,
+                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        journalService.deleteJournalById(id, JournalEtags.expectedVersion(ifMatch, id));
+    }
+
+    private static ResponseEntity<JournalResponse> withEtag(JournalResponse body) {
+        return ResponseEntity.ok().eTag(JournalEtags.of(body.getId(), body.getVersion())).body(body);
     }
 
 //    @GetMapping("/by-user/{userId}")
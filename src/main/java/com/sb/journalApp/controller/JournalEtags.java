@@ -0,0 +1,50 @@
+package com.sb.journalApp.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Strong ETags for journals: {@code "<id>.<version>"}. The version column changes on every write,
+ * so comparing tags never needs the journal body.
+ */
+final class JournalEtags {
+
+    private JournalEtags() {}
+
+    static String of(Long id, Long version) {
+        return "\"" + id + "." + version + "\"";
+    }
+
+    // If-None-Match uses weak comparison (RFC 9110 13.1.2), so W/ prefixes are ignored
+    static boolean noneMatchHits(String ifNoneMatch, Long id, Long version) {
+        String current = of(id, version);
+        for (String tag : ifNoneMatch.split(",")) {
+            String t = tag.trim();
+            if (t.equals("*")) return true;
+            if (t.startsWith("W/")) t = t.substring(2);
+            if (t.equals(current)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Version a write must match, from If-Match. {@code null} header or {@code *} means unconditional.
+     * Anything that can't refer to a version of this journal fails fast with 412.
+     */
+    static Long expectedVersion(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        // strong comparison: weak tags and lists never match a single stored version
+        String t = ifMatch.trim();
+        String prefix = "\"" + id + ".";
+        if (t.startsWith(prefix) && t.endsWith("\"") && t.length() > prefix.length() + 1) {
+            try {
+                return Long.parseLong(t.substring(prefix.length(), t.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // fall through to 412
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match this journal");
+    }
+}
@@ -1,16 +1,22 @@
 package com.sb.journalApp.controller;
 
+import com.sb.journalApp.dto.UserDeletionJobResponse;
 import com.sb.journalApp.dto.UserRequest;
 import com.sb.journalApp.dto.UserResponse;
 import com.sb.journalApp.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.groups.Default;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+
 @Tag(name = "Users", description = "User CRUD Operations")
 @RestController
 @RequestMapping("/api/users")
@@ -23,7 +29,7 @@ public class UserController {
     @Operation(security = {})
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public UserResponse createUser(@Valid @RequestBody UserRequest userRequest) {
+    public UserResponse createUser(@Validated({Default.class, UserRequest.OnCreate.class}) @RequestBody UserRequest userRequest) {
         return userService.createUser(userRequest);
     }
 
@@ -43,10 +49,15 @@ public class UserController {
         return userService.update(id, userRequest);
     }
 
+    // 202: the user is gone from the API at once; their data is removed in the background.
     @DeleteMapping("/{id}")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteUserById(@PathVariable Long id) {
-        userService.deleteUserById(id);
+    public ResponseEntity<UserDeletionJobResponse> deleteUserById(@PathVariable Long id) {
+        return accepted(userService.deleteUserById(id));
+    }
+
+    @GetMapping("/deletions/{jobId}")
+    public UserDeletionJobResponse getDeletionJob(@PathVariable Long jobId) {
+        return userService.getDeletionJob(jobId);
     }
 
     @GetMapping("/me")
@@ -56,8 +67,11 @@ public class UserController {
     public UserResponse updateMe(@Valid @RequestBody UserRequest req) { return userService.updateCurrent(req); }
 
     @DeleteMapping("/me")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteMe() { userService.deleteCurrent(); }
+    public ResponseEntity<UserDeletionJobResponse> deleteMe() { return accepted(userService.deleteCurrent()); }
+
+    private static ResponseEntity<UserDeletionJobResponse> accepted(UserDeletionJobResponse job) {
+        return ResponseEntity.accepted().location(URI.create("/api/users/deletions/" + job.getId())).body(job);
+    }
 
 
 }
@@ -0,0 +1,15 @@
+package com.sb.journalApp.dto;
+
+import lombok.*;
+import java.util.List;
+
+/** One slice of a keyset-paginated listing; {@code nextCursor} is null on the last slice. */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+}
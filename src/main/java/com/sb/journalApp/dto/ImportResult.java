@@ -0,0 +1,12 @@
+package com.sb.journalApp.dto;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ImportResult {
+    private long imported;   // committed, including those before a failing line
+    private boolean complete;
+    private String error;    // first bad line when not complete
+}
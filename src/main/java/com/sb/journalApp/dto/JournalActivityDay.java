@@ -0,0 +1,14 @@
+package com.sb.journalApp.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+
+/** Writing activity on one UTC day: journals created and edits made. */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class JournalActivityDay {
+    private LocalDate date;
+    private int created;
+    private int edited;
+}
@@ -0,0 +1,19 @@
+package com.sb.journalApp.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class JournalBatchOperation {
+
+    public enum Op { CREATE, UPDATE, PATCH, DELETE }
+
+    @NotNull
+    private Op op;
+    private Long id;        // required for UPDATE/PATCH/DELETE
+    private Long version;   // optional; like If-Match, the write only applies to this version
+    private String title;   // CREATE/UPDATE: required; PATCH: optional
+    private String message; // CREATE/UPDATE: required; PATCH: optional
+}
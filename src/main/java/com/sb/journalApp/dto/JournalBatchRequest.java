@@ -0,0 +1,15 @@
+package com.sb.journalApp.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class JournalBatchRequest {
+    @NotEmpty
+    private List<@Valid JournalBatchOperation> operations;
+}
@@ -0,0 +1,14 @@
+package com.sb.journalApp.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class JournalBatchResponse {
+    private int succeeded;
+    private int failed;
+    private List<JournalBatchResult> results;
+}
@@ -0,0 +1,16 @@
+package com.sb.journalApp.dto;
+
+import lombok.*;
+
+/** Outcome of one batch operation; status mirrors what the single-item endpoint would return. */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class JournalBatchResult {
+    private int index;
+    private JournalBatchOperation.Op op;
+    private Long id;
+    private int status;
+    private Long version;  // version after the write (null for DELETE and failures)
+    private String error;
+}
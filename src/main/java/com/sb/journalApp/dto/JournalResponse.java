@@ -13,4 +13,5 @@ public class JournalResponse {
     private OffsetDateTime createdAt;
     private OffsetDateTime lastModifiedAt;
     private Long userId;
+    private Long version;
 }
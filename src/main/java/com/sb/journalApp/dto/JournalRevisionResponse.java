@@ -0,0 +1,16 @@
+package com.sb.journalApp.dto;
+
+import lombok.*;
+import java.time.OffsetDateTime;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class JournalRevisionResponse {
+    private Long journalId;
+    private Long version;
+    private String title;
+    private String message;
+    private OffsetDateTime createdAt; // when this version was written
+    private boolean current;          // true = the journal's live version
+}
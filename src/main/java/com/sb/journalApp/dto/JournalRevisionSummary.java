@@ -0,0 +1,15 @@
+package com.sb.journalApp.dto;
+
+import lombok.*;
+import java.time.OffsetDateTime;
+
+/** One entry of a journal's history; fetch /revisions/{version} for the full text. */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class JournalRevisionSummary {
+    private Long version;
+    private String title;
+    private OffsetDateTime createdAt;
+    private boolean snapshot;
+}
@@ -0,0 +1,17 @@
+package com.sb.journalApp.dto;
+
+import lombok.*;
+import java.time.OffsetDateTime;
+
+/** One search result: the matched journal's metadata plus a highlighted excerpt of its message (HTML-escaped; hits in {@code <mark>}). */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class JournalSearchHit {
+    private Long id;
+    private String title;
+    private String snippet;
+    private float rank;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime lastModifiedAt;
+}
@@ -0,0 +1,20 @@
+package com.sb.journalApp.dto;
+
+import lombok.*;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/** Totals and streaks for the caller's journals; days are UTC. activity lists active days only. */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class JournalStatsResponse {
+    private long journalCount;
+    private long wordCount;
+    private OffsetDateTime firstEntryAt;
+    private OffsetDateTime lastEntryAt;
+    private int activeDays;
+    private int currentStreak;
+    private int longestStreak;
+    private List<JournalActivityDay> activity;
+}
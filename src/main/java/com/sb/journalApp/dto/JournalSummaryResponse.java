@@ -0,0 +1,17 @@
+package com.sb.journalApp.dto;
+
+import lombok.*;
+import java.time.OffsetDateTime;
+
+/** List-view journal: no full message, just a short server-side preview. */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class JournalSummaryResponse {
+    private Long id;
+    private String title;
+    private String preview;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime lastModifiedAt;
+    private Long userId;
+}
@@ -0,0 +1,10 @@
+package com.sb.journalApp.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshRequest { private String refreshToken; }
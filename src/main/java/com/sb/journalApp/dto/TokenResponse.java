@@ -7,4 +7,10 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class TokenResponse { private String tokenType; private String accessToken; private long expiresInSeconds; }
+public class TokenResponse {
+    private String tokenType;
+    private String accessToken;
+    private long expiresInSeconds;
+    private String refreshToken;
+    private long refreshExpiresInSeconds;
+}
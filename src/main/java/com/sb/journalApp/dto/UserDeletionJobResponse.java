@@ -0,0 +1,22 @@
+package com.sb.journalApp.dto;
+
+import lombok.*;
+import java.time.OffsetDateTime;
+
+/** Progress of a background user deletion; poll /api/users/deletions/{id} until status is DONE. */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class UserDeletionJobResponse {
+    private Long id;
+    private Long userId;
+    private String status;
+    private long journalsTotal;
+    private long journalsDeleted;
+    private int attempts;
+    private String lastError;
+    private OffsetDateTime requestedAt;
+    private OffsetDateTime startedAt;
+    private OffsetDateTime updatedAt;
+    private OffsetDateTime finishedAt;
+}
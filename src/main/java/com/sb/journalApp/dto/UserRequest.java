@@ -6,6 +6,9 @@ import lombok.*;
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class UserRequest {
 
+    /** Validation group for signup, where a password is mandatory; on updates it may be omitted. */
+    public interface OnCreate {}
+
     @Size(max = 255)
     private String name;
 
@@ -14,9 +17,9 @@ public class UserRequest {
                 message = "username must be only alphabets and atleast 5 letters")
     private String username;
 
-    @NotBlank
+    @NotBlank(groups = OnCreate.class)
     @Size(min = 8, message = "Password must be atleast 8 charecters")
     @Pattern(regexp = "^[\\p{Alnum}\\p{Punct}]{8,}$",
             message = "password can include letters, digits, and special characters")
-    private String password; // raw in request; will be hashed in service
+    private String password; // raw in request; will be hashed in service (null on update = keep current)
 }
@@ -19,6 +19,7 @@ public final class JournalMapper {
                 .createdAt(journal.getCreatedAt())
                 .lastModifiedAt(journal.getLastModifiedAt())
                 .userId(journal.getUser() != null ? journal.getUser().getId() : null)
+                .version(journal.getVersion())
                 .build();
     }
 
@@ -29,12 +30,17 @@ public final class JournalMapper {
 
     // PATCH = partial update (only if provided and non-blank)
     public static void patchEntity(Journal j, JournalPatchRequest req) {
-        if (req.getTitle() != null && !req.getTitle().isBlank()) {
+        if (patchValue(req.getTitle()) != null) {
             j.setTitle(req.getTitle());
         }
-        if (req.getMessage() != null && !req.getMessage().isBlank()) {
+        if (patchValue(req.getMessage()) != null) {
             j.setMessage(req.getMessage());
         }
     }
 
+    // null means "leave as is"; blank is treated the same as absent
+    public static String patchValue(String value) {
+        return (value == null || value.isBlank()) ? null : value;
+    }
+
 }
@@ -2,10 +2,8 @@ package com.sb.journalApp.mapper;
 
 import com.sb.journalApp.dto.UserRequest;
 import com.sb.journalApp.dto.UserResponse;
-import com.sb.journalApp.model.Journal;
 import com.sb.journalApp.model.User;
 
-import java.util.Collections;
 import java.util.List;
 
 public class UserMapper {
@@ -23,18 +21,17 @@ public class UserMapper {
     public static void updateEntity(User user, UserRequest userRequest, String hashedPassword) {
         user.setName(userRequest.getName());
         user.setUsername(userRequest.getUsername());
-        user.setPassword(hashedPassword);
+        if (hashedPassword != null) { // null = password unchanged, keep the stored hash
+            user.setPassword(hashedPassword);
+        }
     }
 
-    public static UserResponse toDto(User user) {
-
-        var journals = (user.getJournalEntries() == null) ? Collections.<Journal>emptyList() : user.getJournalEntries();
-
-        List<Long> journalIds = journals.stream().map(Journal::getId).toList();
-
+    // journalIds come from an id-only query (see JournalRepository.findIdsByUserId/findIdsByUserIds)
+    // instead of walking user.getJournalEntries(), which would lazily load every Journal row.
+    public static UserResponse toDto(User user, List<Long> journalIds) {
         return UserResponse.builder()
                 .id(user.getId())
-                .journalIds(journalIds)
+                .journalIds(journalIds == null ? List.of() : journalIds)
                 .name(user.getName())
                 .username(user.getUsername())
                 .build();
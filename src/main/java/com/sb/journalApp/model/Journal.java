@@ -14,8 +14,10 @@ import java.util.Optional;
 @Table(name = "journals")
 public class Journal {
 
+    // Pooled sequence (not IDENTITY) so inserts can be JDBC-batched; see V7 migration
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "journals_id_seq")
+    @SequenceGenerator(name = "journals_id_seq", sequenceName = "journals_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -34,4 +36,9 @@ public class Journal {
 
     @Column(name = "last_modified_at", nullable = false, columnDefinition = "timestamptz")
     private OffsetDateTime lastModifiedAt;
+
+    // Bumped on every write; exposed to clients as the ETag
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,39 @@
+package com.sb.journalApp.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder @EqualsAndHashCode(of = "id")
+@ToString(exclude = "tokenHash")
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+
+    /** SHA-256 (hex) of the token handed to the client; the token itself is never stored. */
+    @Column(name = "token_hash", nullable = false, length = 64, unique = true)
+    private String tokenHash;
+
+    @Column(name = "created_at", nullable = false, columnDefinition = "timestamptz")
+    private OffsetDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false, columnDefinition = "timestamptz")
+    private OffsetDateTime expiresAt;
+
+    @Column(name = "revoked_at", columnDefinition = "timestamptz")
+    private OffsetDateTime revokedAt;
+}
@@ -2,6 +2,7 @@ package com.sb.journalApp.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -10,6 +11,7 @@ import java.util.List;
 @Builder @EqualsAndHashCode(of = "id")
 @ToString(exclude = {"password", "journalEntries"})
 @Entity
+@SQLRestriction("deleted_at is null") // tombstoned users (UserDeletionService) are invisible until purged
 @Table(name = "users",
         indexes = @Index(name = "ux_users_username", columnList = "username", unique = true))
 public class User {
@@ -1,10 +1,117 @@
 package com.sb.journalApp.repository;
 
+import com.sb.journalApp.dto.JournalSummaryResponse;
 import com.sb.journalApp.model.Journal;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface JournalRepository extends JpaRepository<Journal, Long> {
-    Page<Journal> findByUser_Id(Long userId, Pageable pageable);
-}
\ No newline at end of file
+
+    /** Characters of {@code message} returned as the preview in summary listings. */
+    int PREVIEW_LENGTH = 200;
+
+    String SUMMARY_SELECT = "select new com.sb.journalApp.dto.JournalSummaryResponse("
+            + "j.id, j.title, substring(j.message, 1, " + PREVIEW_LENGTH + "), j.createdAt, j.lastModifiedAt, j.user.id) "
+            + "from Journal j ";
+
+    // Offset pages without a count query: the total comes from journal_user_stats (JournalStatsService).
+    List<Journal> findByUser_Id(Long userId, Pageable pageable);
+
+    // Keyset pagination: List return type means no count(*) query, and the
+    // (user_id, created_at DESC, id DESC) index serves the seek + order directly.
+    @Query("""
+            select j from Journal j
+            where j.user.id = :userId
+            order by j.createdAt desc, j.id desc
+            """)
+    List<Journal> findFirstKeysetPage(@Param("userId") Long userId, Pageable limit);
+
+    @Query("""
+            select j from Journal j
+            where j.user.id = :userId
+              and (j.createdAt < :createdAt or (j.createdAt = :createdAt and j.id < :id))
+            order by j.createdAt desc, j.id desc
+            """)
+    List<Journal> findKeysetPageAfter(@Param("userId") Long userId,
+                                      @Param("createdAt") OffsetDateTime createdAt,
+                                      @Param("id") Long id,
+                                      Pageable limit);
+
+    // Summary projections: Postgres truncates message server-side, so the full TEXT body
+    // never leaves the database and no Journal entities are hydrated.
+    @Query(SUMMARY_SELECT + "where j.user.id = :userId")
+    List<JournalSummaryResponse> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT
+            + "where j.user.id = :userId "
+            + "order by j.createdAt desc, j.id desc")
+    List<JournalSummaryResponse> findFirstSummaryKeysetPage(@Param("userId") Long userId, Pageable limit);
+
+    @Query(SUMMARY_SELECT
+            + "where j.user.id = :userId "
+            + "and (j.createdAt < :createdAt or (j.createdAt = :createdAt and j.id < :id)) "
+            + "order by j.createdAt desc, j.id desc")
+    List<JournalSummaryResponse> findSummaryKeysetPageAfter(@Param("userId") Long userId,
+                                                            @Param("createdAt") OffsetDateTime createdAt,
+                                                            @Param("id") Long id,
+                                                            Pageable limit);
+
+    // Id-only lookups for UserResponse.journalIds: touches the (user_id) index, never the journal rows' bodies.
+    @Query("select j.id from Journal j where j.user.id = :userId order by j.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    @Query("select j.user.id as userId, j.id as journalId from Journal j where j.user.id in :userIds order by j.id")
+    List<UserJournalIdView> findIdsByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    // Cheap ownership-scoped probe used for conditional GETs and to explain rejected writes.
+    @Query("select j.version from Journal j where j.id = :id and j.user.id = :userId")
+    Optional<Long> findVersionByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Ownership-checked writes: the user_id predicate and the change go out as one statement,
+    // and RETURNING hands back the updated row so no follow-up select is needed.
+    // A non-null :version additionally requires that exact version (If-Match).
+    // Empty result = row missing, not owned or stale; callers tell them apart only on that failure path.
+    @Query(value = """
+            update journals
+               set title = :title, message = :message, last_modified_at = :now, version = version + 1
+             where id = :id and user_id = :userId
+               and (cast(:version as bigint) is null or version = cast(:version as bigint))
+            returning *
+            """, nativeQuery = true)
+    Optional<Journal> updateByIdAndUserId(@Param("id") Long id,
+                                          @Param("userId") Long userId,
+                                          @Param("title") String title,
+                                          @Param("message") String message,
+                                          @Param("now") OffsetDateTime now,
+                                          @Param("version") Long version);
+
+    // null title/message = keep the current value
+    @Query(value = """
+            update journals
+               set title = coalesce(cast(:title as varchar), title),
+                   message = coalesce(cast(:message as text), message),
+                   last_modified_at = :now,
+                   version = version + 1
+             where id = :id and user_id = :userId
+               and (cast(:version as bigint) is null or version = cast(:version as bigint))
+            returning *
+            """, nativeQuery = true)
+    Optional<Journal> patchByIdAndUserId(@Param("id") Long id,
+                                         @Param("userId") Long userId,
+                                         @Param("title") String title,
+                                         @Param("message") String message,
+                                         @Param("now") OffsetDateTime now,
+                                         @Param("version") Long version);
+
+    @Modifying
+    @Query("delete from Journal j where j.id = :id and j.user.id = :userId and (:version is null or j.version = :version)")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId, @Param("version") Long version);
+}
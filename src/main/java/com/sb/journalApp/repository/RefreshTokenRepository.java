@@ -0,0 +1,51 @@
+package com.sb.journalApp.repository;
+
+import com.sb.journalApp.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    // Consume a live token in one statement: the unique token_hash index finds it, revoking it
+    // and reading back the owner happen together, so two concurrent refreshes can't both win.
+    @Query(value = """
+            update refresh_tokens t
+               set revoked_at = :now
+              from users u
+             where t.token_hash = :hash
+               and t.revoked_at is null
+               and t.expires_at > :now
+               and u.id = t.user_id
+            returning t.user_id as userId, u.username as username, t.family_id as familyId
+            """, nativeQuery = true)
+    Optional<RotatedRefreshTokenView> consume(@Param("hash") String hash, @Param("now") OffsetDateTime now);
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revokedAt = :now where t.familyId = :familyId and t.revokedAt is null")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revokedAt = :now where t.userId = :userId and t.revokedAt is null")
+    int revokeAllForUser(@Param("userId") Long userId, @Param("now") OffsetDateTime now);
+
+    // One bounded batch per call (and per transaction), found through the V14 indexes.
+    @Transactional
+    @Modifying
+    @Query(value = """
+            delete from refresh_tokens
+             where id in (select id from refresh_tokens
+                           where expires_at < :now or revoked_at < :revokedBefore
+                           limit :limit)
+            """, nativeQuery = true)
+    int purge(@Param("now") OffsetDateTime now, @Param("revokedBefore") OffsetDateTime revokedBefore,
+              @Param("limit") int limit);
+}
@@ -0,0 +1,10 @@
+package com.sb.journalApp.repository;
+
+import java.util.UUID;
+
+/** What a successful rotation needs to mint the next token pair. */
+public interface RotatedRefreshTokenView {
+    Long getUserId();
+    String getUsername();
+    UUID getFamilyId();
+}
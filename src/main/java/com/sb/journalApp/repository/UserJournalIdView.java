@@ -0,0 +1,7 @@
+package com.sb.journalApp.repository;
+
+/** (owner, journal) id pair; lets us build journalIds for a page of users in one query. */
+public interface UserJournalIdView {
+    Long getUserId();
+    Long getJournalId();
+}
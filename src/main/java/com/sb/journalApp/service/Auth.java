@@ -5,6 +5,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Optional;
+
 
 public final class Auth {
     private Auth() {}
@@ -20,5 +22,13 @@ public final class Auth {
         if (uid == null) throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token missing uid");
         return (uid instanceof Number n) ? n.longValue() : Long.parseLong(uid.toString());
     }
-}
 
+    // For infrastructure code that runs with or without a caller (no 401 when there is none).
+    public static Optional<Long> currentUserIdIfPresent() {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof Jwt jwt) || jwt.getClaim("uid") == null) {
+            return Optional.empty();
+        }
+        return Optional.of(currentUserId());
+    }
+}
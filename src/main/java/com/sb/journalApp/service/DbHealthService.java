@@ -1,48 +1,86 @@
 package com.sb.journalApp.service;
 
-import com.sb.journalApp.repository.EntryRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * DB introspection for /api/health/db and the actuator "db" indicator. The queries run on a
+ * schedule (app.health.db.refresh-interval), never per request: callers read the last snapshot
+ * from memory, with its age, so a polling load balancer costs no connections at all.
+ */
 @Service
-@RequiredArgsConstructor
 public class DbHealthService {
-    private final EntryRepository entryRepository;
+
+    // One round trip, catalog-only: pg_class.reltuples is the planner's row estimate (kept fresh
+    // by autovacuum/ANALYZE), not a count(*) scan of the table.
+    private static final String SNAPSHOT_SQL = """
+            select current_database(),
+                   version(),
+                   (select count(*) from pg_catalog.pg_tables where schemaname = 'public'),
+                   (select coalesce(string_agg(tablename, ',' order by tablename), '')
+                      from (select tablename from pg_catalog.pg_tables
+                             where schemaname = 'public' order by tablename limit 10) t),
+                   (select greatest(reltuples, 0)::bigint from pg_catalog.pg_class
+                     where oid = to_regclass('public.entries'))
+            """;
 
     @PersistenceContext
     private EntityManager em;
 
-    public Map<String, Object> health() {
+    private final Duration staleAfter;
+
+    private volatile Map<String, Object> snapshot = Map.of("status", "UNKNOWN");
+    private volatile Instant checkedAt;
+
+    public DbHealthService(@Value("${app.health.db.refresh-interval:30s}") Duration refreshInterval) {
+        this.staleAfter = refreshInterval.multipliedBy(3); // missed a few refreshes: don't vouch for it
+    }
+
+    @Scheduled(initialDelayString = "${app.health.db.initial-delay:0s}",
+               fixedDelayString = "${app.health.db.refresh-interval:30s}")
+    public void refresh() {
+        Map<String, Object> next = new LinkedHashMap<>();
         try {
-            String dbName  = (String) em.createNativeQuery("select current_database()").getSingleResult();
-            String version = (String) em.createNativeQuery("select version()").getSingleResult();
-            Number tableCount = (Number) em.createNativeQuery(
-                            "select count(*) from information_schema.tables where table_schema = 'public'")
-                    .getSingleResult();
-
-            @SuppressWarnings("unchecked")
-            List<String> tables = em.createNativeQuery(
-                            "select table_name from information_schema.tables " +
-                                    "where table_schema = 'public' order by table_name limit 10")
-                    .getResultList();
-
-            long entryCount = entryRepository.count(); // pure JPA call
-
-            return Map.of(
-                    "status", "UP",
-                    "database", dbName,
-                    "version", version,
-                    "publicTableCount", tableCount.longValue(),
-                    "publicTablesSample", tables,
-                    "entryCount", entryCount
-            );
+            Object[] row = (Object[]) em.createNativeQuery(SNAPSHOT_SQL).getSingleResult();
+            String tables = (String) row[3];
+            next.put("status", "UP");
+            next.put("database", row[0]);
+            next.put("version", row[1]);
+            next.put("publicTableCount", ((Number) row[2]).longValue());
+            next.put("publicTablesSample", tables.isEmpty() ? List.of() : Arrays.asList(tables.split(",")));
+            next.put("entryCountEstimate", row[4] == null ? 0L : ((Number) row[4]).longValue());
         } catch (Exception e) {
-            return Map.of("status", "DOWN", "error", e.getClass().getSimpleName() + ": " + e.getMessage());
+            next.put("status", "DOWN");
+            next.put("error", e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+        snapshot = next;
+        checkedAt = Instant.now();
+    }
+
+    /** Last snapshot plus checkedAt/ageSeconds; "status" is UNKNOWN before the first run and once stale. */
+    public Map<String, Object> health() {
+        Map<String, Object> current = snapshot;
+        Instant at = checkedAt;
+        Map<String, Object> out = new LinkedHashMap<>(current);
+        if (at != null) {
+            Duration age = Duration.between(at, Instant.now());
+            out.put("checkedAt", at.toString());
+            out.put("ageSeconds", age.toSeconds());
+            if (age.compareTo(staleAfter) > 0) {
+                out.put("status", "UNKNOWN");
+                out.put("stale", true);
+            }
         }
+        return out;
     }
 }
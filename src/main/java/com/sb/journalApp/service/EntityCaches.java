@@ -0,0 +1,96 @@
+package com.sb.journalApp.service;
+
+import com.sb.journalApp.config.CacheConfig;
+import com.sb.journalApp.dto.JournalResponse;
+import com.sb.journalApp.dto.UserResponse;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Typed access to the user/journal caches. Puts and evictions are deferred until the surrounding
+ * transaction commits, so a rolled-back write can never leave the cache ahead of the database.
+ * Journals are additionally version-aware: a reader that loaded a row before a concurrent write
+ * or delete committed can't put its older copy back afterwards (see Floor).
+ */
+@Component
+public class EntityCaches {
+
+    private final Cache users;
+    // native Caffeine cache: version checks need an atomic compute, which Spring's Cache lacks
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> journals;
+
+    /** Stands in for an evicted journal: only a populate at minVersion or newer may replace it. */
+    private record Floor(long minVersion) {}
+
+    @SuppressWarnings("unchecked")
+    public EntityCaches(CacheManager cacheManager) {
+        this.users = new TransactionAwareCacheDecorator(cacheManager.getCache(CacheConfig.USERS));
+        this.journals = (com.github.benmanes.caffeine.cache.Cache<Object, Object>)
+                cacheManager.getCache(CacheConfig.JOURNALS).getNativeCache(); // spring.cache.type=caffeine
+    }
+
+    public UserResponse getUser(Long id) { return users.get(id, UserResponse.class); }
+
+    public void putUser(UserResponse profile) { users.put(profile.getId(), profile); }
+
+    public void cacheUser(UserResponse profile) { users.putIfAbsent(profile.getId(), profile); }
+
+    public void evictUser(Long id) { users.evict(id); }
+
+    public JournalResponse getJournal(Long id) {
+        return journals.getIfPresent(id) instanceof JournalResponse journal ? journal : null;
+    }
+
+    // Write-through, applied on commit; never replaces a newer version that got there first.
+    public void putJournal(JournalResponse journal) { afterCommit(() -> merge(journal)); }
+
+    // Read paths populate immediately, but only if nothing newer (entry or floor) is cached.
+    public void cacheJournal(JournalResponse journal) { merge(journal); }
+
+    // For writes that don't write through (batch): copies older than newVersion can't come back.
+    public void evictJournal(Long id, long newVersion) { afterCommit(() -> floor(id, newVersion)); }
+
+    // Ids are never reused, so a deleted journal may never be repopulated.
+    public void deleteJournal(Long id) { afterCommit(() -> floor(id, Long.MAX_VALUE)); }
+
+    // Archiving months moves journals we can't enumerate cheaply; rare enough to just drop them all.
+    public void clearJournals() { afterCommit(journals::invalidateAll); }
+
+    private void merge(JournalResponse journal) {
+        journals.asMap().compute(journal.getId(), (id, current) -> {
+            if (current instanceof JournalResponse cached) return version(journal) > version(cached) ? journal : cached;
+            if (current instanceof Floor floor) return version(journal) >= floor.minVersion() ? journal : floor;
+            return journal;
+        });
+    }
+
+    private void floor(Long id, long minVersion) {
+        journals.asMap().compute(id, (key, current) -> {
+            if (current instanceof JournalResponse cached && version(cached) >= minVersion) return cached;
+            if (current instanceof Floor floor && floor.minVersion() >= minVersion) return floor;
+            return new Floor(minVersion);
+        });
+    }
+
+    private static long version(JournalResponse journal) {
+        return journal.getVersion() == null ? 0 : journal.getVersion();
+    }
+
+    // Same deferral TransactionAwareCacheDecorator applies to the users cache.
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
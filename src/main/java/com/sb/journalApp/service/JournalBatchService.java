@@ -0,0 +1,250 @@
+package com.sb.journalApp.service;
+
+import com.sb.journalApp.dto.JournalBatchOperation;
+import com.sb.journalApp.dto.JournalBatchOperation.Op;
+import com.sb.journalApp.dto.JournalBatchRequest;
+import com.sb.journalApp.dto.JournalBatchResponse;
+import com.sb.journalApp.dto.JournalBatchResult;
+import com.sb.journalApp.mapper.JournalMapper;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies a client's queued create/update/patch/delete operations in one transaction: one IN query
+ * for ownership + versions, then one JDBC batch per operation type. Each operation succeeds or
+ * fails on its own (status per item, same codes as the single-item endpoints).
+ */
+@Service
+@Timed(value = "journal.service", description = "Latency per service method (tags: class, method)")
+public class JournalBatchService {
+
+    static final int MAX_OPERATIONS = 500;
+
+    // version in the WHERE clause makes each write a compare-and-set against the version we checked
+    private static final String UPDATE_SQL = """
+            update journals set title = ?, message = ?, last_modified_at = ?, version = version + 1
+             where id = ? and user_id = ? and version = ?
+            """;
+    private static final String PATCH_SQL = """
+            update journals set title = coalesce(?, title), message = coalesce(?, message),
+                                last_modified_at = ?, version = version + 1
+             where id = ? and user_id = ? and version = ?
+            """;
+    private static final int[] PATCH_TYPES = {
+            Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP, Types.BIGINT, Types.BIGINT, Types.BIGINT
+    };
+    private static final String DELETE_SQL = "delete from journals where id = ? and user_id = ? and version = ?";
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate named;
+    private final EntityCaches entityCaches;
+    private final JournalRevisionService journalRevisionService;
+
+    public JournalBatchService(DataSource dataSource, EntityCaches entityCaches, JournalRevisionService journalRevisionService) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.named = new NamedParameterJdbcTemplate(jdbc);
+        this.entityCaches = entityCaches;
+        this.journalRevisionService = journalRevisionService;
+    }
+
+    // title/message/lastModifiedAt are the revision base for updates and patches
+    private record Row(long userId, long version, String title, String message, OffsetDateTime lastModifiedAt) {}
+
+    @Transactional
+    public JournalBatchResponse apply(JournalBatchRequest request) {
+
+        Long uid = Auth.currentUserId();
+        List<JournalBatchOperation> ops = request.getOperations();
+        if (ops.size() > MAX_OPERATIONS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "at most " + MAX_OPERATIONS + " operations per batch");
+        }
+
+        JournalBatchResult[] results = new JournalBatchResult[ops.size()];
+        Map<Long, Row> rows = lookup(ops);
+        Set<Long> seen = new HashSet<>();
+        Map<Op, List<Integer>> accepted = new HashMap<>();
+
+        for (int i = 0; i < ops.size(); i++) {
+            JournalBatchOperation op = ops.get(i);
+            String invalid = validate(op);
+            if (invalid != null) {
+                results[i] = failure(i, op, HttpStatus.BAD_REQUEST, invalid);
+                continue;
+            }
+            if (op.getOp() != Op.CREATE) {
+                Row row = rows.get(op.getId());
+                if (!seen.add(op.getId())) {
+                    results[i] = failure(i, op, HttpStatus.CONFLICT, "id appears more than once in this batch");
+                    continue;
+                }
+                if (row == null) {
+                    results[i] = failure(i, op, HttpStatus.NOT_FOUND, "Journal not found: " + op.getId());
+                    continue;
+                }
+                if (row.userId() != uid) {
+                    results[i] = failure(i, op, HttpStatus.FORBIDDEN, "Not your journal");
+                    continue;
+                }
+                if (op.getVersion() != null && op.getVersion() != row.version()) {
+                    results[i] = failure(i, op, HttpStatus.PRECONDITION_FAILED, "Journal was modified");
+                    continue;
+                }
+            }
+            accepted.computeIfAbsent(op.getOp(), k -> new ArrayList<>()).add(i);
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        insert(ops, accepted.getOrDefault(Op.CREATE, List.of()), uid, now, results);
+        write(ops, accepted.getOrDefault(Op.UPDATE, List.of()), UPDATE_SQL, null, HttpStatus.OK, uid, now, rows, results);
+        write(ops, accepted.getOrDefault(Op.PATCH, List.of()), PATCH_SQL, PATCH_TYPES, HttpStatus.OK, uid, now, rows, results);
+        write(ops, accepted.getOrDefault(Op.DELETE, List.of()), DELETE_SQL, null, HttpStatus.NO_CONTENT, uid, now, rows, results);
+
+        int succeeded = (int) Arrays.stream(results).filter(r -> r.getError() == null).count();
+        return JournalBatchResponse.builder()
+                .succeeded(succeeded)
+                .failed(results.length - succeeded)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    // The single ownership/version query for every id the batch touches.
+    private Map<Long, Row> lookup(List<JournalBatchOperation> ops) {
+        Set<Long> ids = new HashSet<>();
+        for (JournalBatchOperation op : ops) {
+            if (op.getOp() != null && op.getOp() != Op.CREATE && op.getId() != null) ids.add(op.getId());
+        }
+        Map<Long, Row> rows = new HashMap<>();
+        if (ids.isEmpty()) return rows;
+        String columns = journalRevisionService.isEnabled()
+                ? "id, user_id, version, title, message, last_modified_at"
+                : "id, user_id, version, null as title, null as message, null as last_modified_at";
+        named.query("select " + columns + " from journals where id in (:ids)", Map.of("ids", ids),
+                rs -> {
+                    rows.put(rs.getLong("id"), new Row(rs.getLong("user_id"), rs.getLong("version"),
+                            rs.getString("title"), rs.getString("message"),
+                            rs.getObject("last_modified_at", OffsetDateTime.class)));
+                });
+        return rows;
+    }
+
+    private static String validate(JournalBatchOperation op) {
+        if (op.getOp() == null) return "op is required";
+        if (op.getOp() != Op.CREATE && op.getId() == null) return "id is required for " + op.getOp();
+        switch (op.getOp()) {
+            case CREATE, UPDATE -> {
+                if (op.getTitle() == null || op.getTitle().isBlank() || op.getTitle().length() > 255) {
+                    return "title must be 1-255 characters";
+                }
+                if (op.getMessage() == null || op.getMessage().isBlank()) return "message must not be blank";
+            }
+            case PATCH -> {
+                String title = JournalMapper.patchValue(op.getTitle());
+                if (title != null && title.length() > 255) return "title must be at most 255 characters";
+            }
+            case DELETE -> { }
+        }
+        return null;
+    }
+
+    private void insert(List<JournalBatchOperation> ops, List<Integer> indexes, Long uid, Timestamp now,
+                        JournalBatchResult[] results) {
+        if (indexes.isEmpty()) return;
+        List<Long> ids = JournalIds.reserve(jdbc, indexes.size());
+        List<Object[]> args = new ArrayList<>(indexes.size());
+        for (int k = 0; k < indexes.size(); k++) {
+            JournalBatchOperation op = ops.get(indexes.get(k));
+            args.add(new Object[] { ids.get(k), op.getTitle(), op.getMessage(), now, now, uid });
+        }
+        // reWriteBatchedInserts on the JDBC URL turns this into multi-row INSERTs
+        jdbc.batchUpdate("""
+                insert into journals (id, title, message, created_at, last_modified_at, user_id, version)
+                values (?, ?, ?, ?, ?, ?, 0)
+                """, args);
+        for (int k = 0; k < indexes.size(); k++) {
+            int i = indexes.get(k);
+            results[i] = success(i, ops.get(i), ids.get(k), HttpStatus.CREATED, 0L);
+        }
+    }
+
+    private void write(List<JournalBatchOperation> ops, List<Integer> indexes, String sql, int[] types,
+                       HttpStatus okStatus, Long uid, Timestamp now, Map<Long, Row> rows,
+                       JournalBatchResult[] results) {
+        if (indexes.isEmpty()) return;
+        boolean delete = okStatus == HttpStatus.NO_CONTENT;
+        List<Object[]> args = new ArrayList<>(indexes.size());
+        for (int i : indexes) {
+            JournalBatchOperation op = ops.get(i);
+            long version = rows.get(op.getId()).version();
+            if (delete) {
+                args.add(new Object[] { op.getId(), uid, version });
+            } else if (types != null) {
+                args.add(new Object[] { JournalMapper.patchValue(op.getTitle()), JournalMapper.patchValue(op.getMessage()),
+                        now, op.getId(), uid, version });
+            } else {
+                args.add(new Object[] { op.getTitle(), op.getMessage(), now, op.getId(), uid, version });
+            }
+        }
+        int[] counts = types != null ? jdbc.batchUpdate(sql, args, types) : jdbc.batchUpdate(sql, args);
+
+        List<JournalRevisionService.Change> revisions = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        for (int k = 0; k < indexes.size(); k++) {
+            int i = indexes.get(k);
+            JournalBatchOperation op = ops.get(i);
+            if (counts[k] == 0) { // changed between our lookup and the write
+                results[i] = failure(i, op, HttpStatus.PRECONDITION_FAILED, "Journal was modified");
+                continue;
+            }
+            Row row = rows.get(op.getId());
+            if (delete) {
+                deleted.add(op.getId());
+            } else if (journalRevisionService.isEnabled()) {
+                // the write was a compare-and-set on row.version(), so row holds exactly what it replaced
+                String title = types != null && JournalMapper.patchValue(op.getTitle()) == null ? row.title() : op.getTitle();
+                String message = types != null && JournalMapper.patchValue(op.getMessage()) == null ? row.message() : op.getMessage();
+                revisions.add(new JournalRevisionService.Change(op.getId(), uid,
+                        new JournalRevisionService.Content(row.title(), row.message(), row.version(), row.lastModifiedAt()),
+                        new JournalRevisionService.Content(title, message, row.version() + 1, now.toInstant().atOffset(ZoneOffset.UTC))));
+            }
+            if (delete) {
+                entityCaches.deleteJournal(op.getId()); // applied on commit
+            } else {
+                entityCaches.evictJournal(op.getId(), row.version() + 1);
+            }
+            results[i] = success(i, op, op.getId(), okStatus, delete ? null : row.version() + 1);
+        }
+        journalRevisionService.recordAll(revisions);
+        journalRevisionService.deleteFor(deleted);
+    }
+
+    private static JournalBatchResult success(int index, JournalBatchOperation op, Long id, HttpStatus status, Long version) {
+        return JournalBatchResult.builder()
+                .index(index).op(op.getOp()).id(id).status(status.value()).version(version)
+                .build();
+    }
+
+    private static JournalBatchResult failure(int index, JournalBatchOperation op, HttpStatus status, String error) {
+        return JournalBatchResult.builder()
+                .index(index).op(op.getOp()).id(op.getId()).status(status.value()).error(error)
+                .build();
+    }
+}
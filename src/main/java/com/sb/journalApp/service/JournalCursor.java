@@ -0,0 +1,50 @@
+package com.sb.journalApp.service;
+
+import com.sb.journalApp.model.Journal;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over (createdAt, id). Clients only ever echo back what we gave them,
+ * so the format can change without breaking anyone.
+ */
+public final class JournalCursor {
+
+    private final OffsetDateTime createdAt;
+    private final Long id;
+
+    private JournalCursor(OffsetDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public OffsetDateTime createdAt() { return createdAt; }
+
+    public Long id() { return id; }
+
+    public static String encode(Journal last) {
+        return encode(last.getCreatedAt(), last.getId());
+    }
+
+    public static String encode(OffsetDateTime createdAt, Long id) {
+        String raw = createdAt.toInstant() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static JournalCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            OffsetDateTime createdAt = Instant.parse(raw.substring(0, sep)).atOffset(ZoneOffset.UTC);
+            return new JournalCursor(createdAt, Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
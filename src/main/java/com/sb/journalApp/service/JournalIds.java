@@ -0,0 +1,38 @@
+package com.sb.journalApp.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Reserves journal ids for JDBC inserts that bypass Hibernate. */
+final class JournalIds {
+
+    /** Must match allocationSize on Journal.id and the INCREMENT of journals_id_seq (V7). */
+    static final int BLOCK = 50;
+
+    private JournalIds() {}
+
+    // Same scheme as Hibernate's pooled optimizer: each nextval is the top of a block of BLOCK ids.
+    // One round trip covers any count (two on a brand-new sequence).
+    static List<Long> reserve(JdbcTemplate jdbc, int count) {
+        if (count == 0) return List.of();
+        int blocks = (count + BLOCK - 1) / BLOCK;
+        List<Long> blockTops = new ArrayList<>(nextvals(jdbc, blocks));
+        // A fresh sequence's first nextval is its start value (1), not the top of a block: the
+        // block below it would be ids -48..1. Like the pooled optimizer, take another value instead.
+        blockTops.removeIf(top -> top < BLOCK);
+        if (blockTops.size() < blocks) {
+            blockTops.addAll(nextvals(jdbc, blocks - blockTops.size()));
+        }
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(blockTops.get(i / BLOCK) - BLOCK + 1 + (i % BLOCK));
+        }
+        return ids;
+    }
+
+    private static List<Long> nextvals(JdbcTemplate jdbc, int n) {
+        return jdbc.queryForList("select nextval('journals_id_seq') from generate_series(1, ?)", Long.class, n);
+    }
+}
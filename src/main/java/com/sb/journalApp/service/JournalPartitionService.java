@@ -0,0 +1,100 @@
+package com.sb.journalApp.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Maintains the monthly partitions of journals (V10): creates the coming months ahead of time
+ * and, when enabled, moves months older than app.journals.partitions.archive.after into
+ * journals_archive. The SQL functions do the DDL; this only decides which months.
+ */
+@Service
+public class JournalPartitionService {
+
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String PARTITION_PREFIX = "journals_p";
+
+    private final JdbcTemplate jdbc;
+    private final EntityCaches entityCaches;
+    private final MeterRegistry meterRegistry;
+    private final int premakeMonths;
+    private final boolean archiveEnabled;
+    private final Duration archiveAfter;
+
+    public JournalPartitionService(DataSource dataSource,
+                                   EntityCaches entityCaches,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.journals.partitions.premake-months:3}") int premakeMonths,
+                                   @Value("${app.journals.partitions.archive.enabled:false}") boolean archiveEnabled,
+                                   @Value("${app.journals.partitions.archive.after:730d}") Duration archiveAfter) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.entityCaches = entityCaches;
+        this.meterRegistry = meterRegistry;
+        this.premakeMonths = premakeMonths;
+        this.archiveEnabled = archiveEnabled;
+        this.archiveAfter = archiveAfter;
+    }
+
+    // Daily by default; the advisory lock keeps several instances from doing the DDL twice.
+    @Scheduled(cron = "${app.journals.partitions.cron:0 15 3 * * *}", zone = "UTC")
+    @Transactional
+    public void maintain() {
+        Boolean locked = jdbc.queryForObject("select pg_try_advisory_xact_lock(hashtext('journals_partitions'))", Boolean.class);
+        if (!Boolean.TRUE.equals(locked)) return;
+
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= premakeMonths; i++) {
+            Boolean created = jdbc.queryForObject("select journals_ensure_partition(?)", Boolean.class,
+                    current.plusMonths(i).atDay(1));
+            if (Boolean.TRUE.equals(created)) meterRegistry.counter("journals.partitions.created").increment();
+        }
+
+        if (archiveEnabled) {
+            archiveOlderThan(LocalDate.now(ZoneOffset.UTC).minusDays(archiveAfter.toDays()));
+        }
+    }
+
+    // Only whole months that ended before the cutoff move; the current month never does.
+    private void archiveOlderThan(LocalDate cutoff) {
+        List<String> partitions = jdbc.queryForList("""
+                select c.relname
+                  from pg_inherits i
+                  join pg_class c on c.oid = i.inhrelid
+                 where i.inhparent = 'journals'::regclass
+                 order by c.relname
+                """, String.class);
+
+        int archived = 0;
+        for (String name : partitions) {
+            YearMonth month = monthOf(name);
+            if (month == null || month.plusMonths(1).atDay(1).isAfter(cutoff)) continue;
+            jdbc.queryForObject("select journals_archive_partition(?)::text", String.class, name);
+            archived++;
+        }
+        if (archived > 0) {
+            meterRegistry.counter("journals.partitions.archived").increment(archived);
+            entityCaches.clearJournals(); // archived journals are no longer served; applied on commit
+        }
+    }
+
+    private static YearMonth monthOf(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) return null; // e.g. journals_default
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_MONTH);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.sb.journalApp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The storage format behind JournalRevisionService, kept free of JDBC so it can be tested on
+ * its own. A stored revision is either a full snapshot or a delta against the version before
+ * it: "keep prefixLen chars of the base, then body, then keep the base's last suffixLen chars".
+ */
+final class JournalRevisionCodec {
+
+    private JournalRevisionCodec() {}
+
+    record Stored(long version, boolean snapshot, String body, int prefixLen, int suffixLen) {}
+
+    /**
+     * Rows to store for one edit from {@code previousVersion} to {@code version}, given what is
+     * already stored for the journal (latest / latestSnapshot version, null if none). The first
+     * recorded edit, or one after a gap, also stores the replaced version as a snapshot base.
+     */
+    static List<Stored> encode(Long latest, Long latestSnapshot, long previousVersion, String previous,
+                               long version, String text, int snapshotInterval) {
+        List<Stored> rows = new ArrayList<>(2);
+        long lastSnapshot;
+        if (latest == null || latest != previousVersion || latestSnapshot == null) {
+            rows.add(snapshot(previousVersion, previous));
+            lastSnapshot = previousVersion;
+        } else {
+            lastSnapshot = latestSnapshot;
+        }
+        rows.add(version - lastSnapshot >= snapshotInterval ? snapshot(version, text) : delta(version, previous, text));
+        return rows;
+    }
+
+    static Stored snapshot(long version, String text) {
+        return new Stored(version, true, text, 0, 0);
+    }
+
+    // Longest common prefix, then longest common suffix of what's left, so the two never overlap
+    // (e.g. "aaa" -> "aa": prefix 2, suffix 0, empty body). Both are pulled back to code-point
+    // boundaries: a body starting or ending in half a surrogate pair can't be stored as UTF-8
+    // (two emoji from the same block share their high surrogate, but the body must hold the whole one).
+    static Stored delta(long version, String base, String text) {
+        int max = Math.min(base.length(), text.length());
+        int prefix = 0;
+        while (prefix < max && base.charAt(prefix) == text.charAt(prefix)) prefix++;
+        if (prefix > 0 && Character.isHighSurrogate(text.charAt(prefix - 1))) prefix--;
+        int suffix = 0;
+        while (suffix < max - prefix
+                && base.charAt(base.length() - 1 - suffix) == text.charAt(text.length() - 1 - suffix)) suffix++;
+        if (suffix > 0 && Character.isLowSurrogate(text.charAt(text.length() - suffix))) suffix--;
+        return new Stored(version, false, text.substring(prefix, text.length() - suffix), prefix, suffix);
+    }
+
+    static String apply(String base, Stored delta) {
+        return base.substring(0, delta.prefixLen()) + delta.body() + base.substring(base.length() - delta.suffixLen());
+    }
+
+    /** Text of the last row; rows are ascending by version and start with a snapshot. */
+    static String replay(List<Stored> rows) {
+        String text = null;
+        for (Stored row : rows) {
+            text = row.snapshot() ? row.body() : apply(text, row);
+        }
+        return text;
+    }
+}
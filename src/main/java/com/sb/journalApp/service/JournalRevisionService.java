@@ -0,0 +1,230 @@
+package com.sb.journalApp.service;
+
+import com.sb.journalApp.dto.JournalRevisionResponse;
+import com.sb.journalApp.dto.JournalRevisionSummary;
+import com.sb.journalApp.repository.JournalRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Journal edit history (V11). Writers pass the state before and after each change; the new
+ * version is stored as a prefix/suffix delta against the previous one (autosaves touch one
+ * spot, so the delta is roughly the edited text), with a full snapshot every
+ * {@code snapshotInterval} versions to bound reconstruction. The format itself is
+ * JournalRevisionCodec.
+ */
+@Service
+public class JournalRevisionService {
+
+    /** Content of one journal version, as read before or written by a change. */
+    public record Content(String title, String message, long version, OffsetDateTime at) {}
+
+    public record Change(Long journalId, Long userId, Content previous, Content current) {}
+
+    private record Row(long version, boolean snapshot, String title, String body,
+                       int prefixLen, int suffixLen, OffsetDateTime createdAt) {}
+
+    private record History(Long latest, Long latestSnapshot) {}
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate named;
+    private final JournalRepository journalRepository;
+    private final boolean enabled;
+    private final int snapshotInterval;
+
+    public JournalRevisionService(DataSource dataSource,
+                                  JournalRepository journalRepository,
+                                  @Value("${app.journals.revisions.enabled:true}") boolean enabled,
+                                  @Value("${app.journals.revisions.snapshot-interval:20}") int snapshotInterval) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.named = new NamedParameterJdbcTemplate(jdbc);
+        this.journalRepository = journalRepository;
+        this.enabled = enabled;
+        this.snapshotInterval = Math.max(1, snapshotInterval);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Current content of the caller's journal, row-locked until commit so the delta recorded
+     * afterwards is against exactly what the update replaced. Null if disabled or not owned.
+     */
+    public Content lockCurrent(Long journalId, Long userId) {
+        if (!enabled) return null;
+        List<Content> rows = jdbc.query("""
+                        select title, message, version, last_modified_at
+                          from journals where id = ? and user_id = ?
+                           for update
+                        """,
+                (rs, i) -> new Content(rs.getString("title"), rs.getString("message"), rs.getLong("version"),
+                        rs.getObject("last_modified_at", OffsetDateTime.class)),
+                journalId, userId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // Must run inside the writer's transaction. One state query + one batch insert for all changes.
+    public void recordAll(List<Change> changes) {
+        if (!enabled || changes.isEmpty()) return;
+
+        Set<Long> ids = changes.stream().map(Change::journalId).collect(Collectors.toSet());
+        Map<Long, History> history = new HashMap<>();
+        named.query("""
+                        select journal_id, max(version) as latest, max(version) filter (where snapshot) as latest_snapshot
+                          from journal_revisions
+                         where journal_id in (:ids)
+                         group by journal_id
+                        """,
+                Map.of("ids", ids),
+                rs -> {
+                    history.put(rs.getLong("journal_id"),
+                            new History(rs.getObject("latest", Long.class), rs.getObject("latest_snapshot", Long.class)));
+                });
+
+        List<Object[]> rows = new ArrayList<>();
+        for (Change c : changes) {
+            Content prev = c.previous();
+            Content next = c.current();
+            History h = history.getOrDefault(c.journalId(), new History(null, null));
+            for (JournalRevisionCodec.Stored s : JournalRevisionCodec.encode(h.latest(), h.latestSnapshot(),
+                    prev.version(), prev.message(), next.version(), next.message(), snapshotInterval)) {
+                Content of = s.version() == prev.version() ? prev : next; // title + time of that version
+                rows.add(new Object[] { c.journalId(), c.userId(), s.version(), s.snapshot(), of.title(), s.body(),
+                        s.prefixLen(), s.suffixLen(), timestamp(of.at()) });
+            }
+        }
+
+        jdbc.batchUpdate("""
+                insert into journal_revisions (journal_id, user_id, version, snapshot, title, body, prefix_len, suffix_len, created_at)
+                values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                on conflict (journal_id, version) do nothing
+                """, rows);
+    }
+
+    public void record(Change change) {
+        recordAll(List.of(change));
+    }
+
+    public void deleteFor(Collection<Long> journalIds) {
+        if (!enabled || journalIds.isEmpty()) return;
+        named.update("delete from journal_revisions where journal_id in (:ids)", Map.of("ids", journalIds));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<JournalRevisionSummary> list(Long journalId, int page, int size) {
+
+        Long uid = Auth.currentUserId();
+        requireOwned(journalId, uid);
+
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, JournalService.MAX_PAGE_SIZE)));
+        List<JournalRevisionSummary> content = jdbc.query("""
+                        select version, title, created_at, snapshot
+                          from journal_revisions
+                         where journal_id = ?
+                         order by version desc
+                         limit ? offset ?
+                        """,
+                (rs, i) -> JournalRevisionSummary.builder()
+                        .version(rs.getLong("version"))
+                        .title(rs.getString("title"))
+                        .createdAt(rs.getObject("created_at", OffsetDateTime.class))
+                        .snapshot(rs.getBoolean("snapshot"))
+                        .build(),
+                journalId, pageable.getPageSize(), pageable.getOffset());
+        Long total = jdbc.queryForObject("select count(*) from journal_revisions where journal_id = ?", Long.class, journalId);
+        return new PageImpl<>(content, pageable, total == null ? 0 : total);
+    }
+
+    // Nearest snapshot at or below the version, then its deltas in order: at most snapshotInterval rows.
+    @Transactional(readOnly = true)
+    public JournalRevisionResponse reconstruct(Long journalId, long version) {
+
+        Long uid = Auth.currentUserId();
+        long current = requireOwned(journalId, uid);
+        if (version < 0 || version > current) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No version " + version + " of journal " + journalId);
+        }
+
+        List<Row> rows = jdbc.query("""
+                        select version, snapshot, title, body, prefix_len, suffix_len, created_at
+                          from journal_revisions
+                         where journal_id = ?
+                           and version <= ?
+                           and version >= (select max(version) from journal_revisions
+                                            where journal_id = ? and snapshot and version <= ?)
+                         order by version
+                        """,
+                (rs, i) -> new Row(rs.getLong("version"), rs.getBoolean("snapshot"), rs.getString("title"),
+                        rs.getString("body"), rs.getInt("prefix_len"), rs.getInt("suffix_len"),
+                        rs.getObject("created_at", OffsetDateTime.class)),
+                journalId, version, journalId, version);
+
+        if (rows.isEmpty() || rows.get(rows.size() - 1).version() != version) {
+            if (version == current) { // never edited since history started: the live row is the only copy
+                return currentVersion(journalId, uid);
+            }
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Version " + version + " was not recorded");
+        }
+
+        String message = JournalRevisionCodec.replay(rows.stream()
+                .map(r -> new JournalRevisionCodec.Stored(r.version(), r.snapshot(), r.body(), r.prefixLen(), r.suffixLen()))
+                .toList());
+        Row last = rows.get(rows.size() - 1);
+        return JournalRevisionResponse.builder()
+                .journalId(journalId)
+                .version(version)
+                .title(last.title())
+                .message(message)
+                .createdAt(last.createdAt())
+                .current(version == current)
+                .build();
+    }
+
+    private JournalRevisionResponse currentVersion(Long journalId, Long uid) {
+        return jdbc.query("""
+                        select title, message, version, last_modified_at
+                          from journals where id = ? and user_id = ?
+                        """,
+                (rs, i) -> JournalRevisionResponse.builder()
+                        .journalId(journalId)
+                        .version(rs.getLong("version"))
+                        .title(rs.getString("title"))
+                        .message(rs.getString("message"))
+                        .createdAt(rs.getObject("last_modified_at", OffsetDateTime.class))
+                        .current(true)
+                        .build(),
+                journalId, uid).get(0);
+    }
+
+    // Current version of the caller's journal; 404 if it doesn't exist, 403 if it isn't theirs.
+    private long requireOwned(Long journalId, Long uid) {
+        return journalRepository.findVersionByIdAndUserId(journalId, uid).orElseThrow(() ->
+                journalRepository.existsById(journalId)
+                        ? new ResponseStatusException(HttpStatus.FORBIDDEN, "Not your journal")
+                        : new ResponseStatusException(HttpStatus.NOT_FOUND, "Journal not found: " + journalId));
+    }
+
+    private static Timestamp timestamp(OffsetDateTime at) {
+        return Timestamp.from((at != null ? at : OffsetDateTime.now()).toInstant());
+    }
+}
@@ -0,0 +1,129 @@
+package com.sb.journalApp.service;
+
+import com.sb.journalApp.dto.CursorPage;
+import com.sb.journalApp.dto.JournalSearchHit;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.HtmlUtils;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Ranked full-text search over the caller's journals (search_vector + GIN index, see V8).
+ * Paging is keyset on (rank desc, id desc); snippets are only built for the rows returned.
+ */
+@Service
+public class JournalSearchService {
+
+    static final int MAX_QUERY_LENGTH = 200;
+
+    // ts_headline returns the raw message around its markers. It marks hits with two
+    // private-use characters (stripped from the message first); snippet() escapes the
+    // text as HTML and only then turns the markers into <mark> tags.
+    private static final String HIT_START = "\uE000";
+    private static final String HIT_END = "\uE001";
+
+    // Inner query filters + ranks via the GIN index; the outer one applies the cursor, limits,
+    // and only then runs ts_headline (the expensive part) on the surviving rows.
+    private static final String SEARCH_SQL = """
+            select h.id, h.title, h.created_at, h.last_modified_at, h.rank,
+                   ts_headline('english', translate(h.message, '\uE000\uE001', ''), websearch_to_tsquery('english', :q),
+                               'MaxFragments=2, MinWords=5, MaxWords=20, StartSel=\uE000, StopSel=\uE001') as snippet
+              from (select j.id, j.title, j.message, j.created_at, j.last_modified_at,
+                           ts_rank(j.search_vector, tq.query) as rank
+                      from journals j
+                     cross join websearch_to_tsquery('english', :q) as tq(query)
+                     where j.user_id = :userId
+                       and j.search_vector @@ tq.query) h
+             where cast(:afterRank as real) is null
+                or h.rank < cast(:afterRank as real)
+                or (h.rank = cast(:afterRank as real) and h.id < cast(:afterId as bigint))
+             order by h.rank desc, h.id desc
+             limit :limit
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public JournalSearchService(DataSource dataSource) {
+        this.jdbc = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<JournalSearchHit> search(String q, String cursor, int size) {
+
+        Long uid = Auth.currentUserId();
+
+        if (q == null || q.isBlank() || q.length() > MAX_QUERY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q must be 1-" + MAX_QUERY_LENGTH + " characters");
+        }
+        int limit = Math.max(1, Math.min(size, JournalService.MAX_PAGE_SIZE));
+
+        Float afterRank = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            afterRank = Float.parseFloat(parts[0]);
+            afterId = Long.parseLong(parts[1]);
+        }
+
+        var params = new MapSqlParameterSource()
+                .addValue("q", q)
+                .addValue("userId", uid)
+                .addValue("afterRank", afterRank)
+                .addValue("afterId", afterId)
+                .addValue("limit", limit + 1); // one extra row tells us if there's a next page
+
+        List<JournalSearchHit> rows = jdbc.query(SEARCH_SQL, params, (rs, i) -> JournalSearchHit.builder()
+                .id(rs.getLong("id"))
+                .title(rs.getString("title"))
+                .snippet(snippet(rs.getString("snippet")))
+                .rank(rs.getFloat("rank"))
+                .createdAt(rs.getObject("created_at", OffsetDateTime.class))
+                .lastModifiedAt(rs.getObject("last_modified_at", OffsetDateTime.class))
+                .build());
+
+        boolean hasNext = rows.size() > limit;
+        List<JournalSearchHit> slice = hasNext ? rows.subList(0, limit) : rows;
+        JournalSearchHit last = slice.isEmpty() ? null : slice.get(slice.size() - 1);
+
+        return CursorPage.<JournalSearchHit>builder()
+                .content(slice)
+                .size(slice.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? encodeCursor(last.getRank(), last.getId()) : null)
+                .build();
+    }
+
+    private static String snippet(String headline) {
+        if (headline == null) return null;
+        return HtmlUtils.htmlEscape(headline, StandardCharsets.UTF_8.name())
+                .replace(HIT_START, "<mark>")
+                .replace(HIT_END, "</mark>");
+    }
+
+    // Float.toString round-trips exactly, so the resumed page compares against the same real value.
+    private static String encodeCursor(float rank, Long id) {
+        String raw = Float.toString(rank) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) throw new IllegalArgumentException();
+            Float.parseFloat(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package com.sb.journalApp.service;
 
+import com.sb.journalApp.dto.CursorPage;
 import com.sb.journalApp.dto.JournalPatchRequest;
 import com.sb.journalApp.dto.JournalRequest;
 import com.sb.journalApp.dto.JournalResponse;
+import com.sb.journalApp.dto.JournalSummaryResponse;
 import com.sb.journalApp.mapper.JournalMapper;
+import com.sb.journalApp.mapper.UserMapper;
 import com.sb.journalApp.model.Journal;
 import com.sb.journalApp.model.User;
 import com.sb.journalApp.repository.JournalRepository;
 import com.sb.journalApp.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,18 +23,45 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "journal.service", description = "Latency per service method (tags: class, method)")
 public class JournalService {
 
     private final JournalRepository journalRepository;
     private final UserRepository userRepository;
+    private final EntityCaches entityCaches;
+    private final JournalRevisionService journalRevisionService;
+    private final MeterRegistry meterRegistry;
+    private final JournalStatsService journalStatsService;
 
-    private void assertOwner(Journal journal, Long callerId) {
-        if (journal.getUser() == null || !journal.getUser().getId().equals(callerId)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not your journal");
+    // concurrent cache misses for the same id share one findById + toDto
+    private final SingleFlight<Long, JournalResponse> journalLoads = new SingleFlight<>();
+
+    /** Upper bound on any list page so a single request can't pull a user's whole history. */
+    static final int MAX_PAGE_SIZE = 100;
+
+    private static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    // Only reached when an ownership-checked write matched no row. If the caller still owns the
+    // row, the only thing that can have failed is the If-Match version: 412. Otherwise 404 vs 403.
+    private ResponseStatusException writeRejected(Long id, Long uid) {
+        if (journalRepository.findVersionByIdAndUserId(id, uid).isPresent()) {
+            return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Journal was modified; re-fetch and retry");
         }
+        return missingOrForbidden(id);
+    }
+
+    private ResponseStatusException missingOrForbidden(Long id) {
+        return journalRepository.existsById(id)
+                ? new ResponseStatusException(HttpStatus.FORBIDDEN, "Not your journal")
+                : new ResponseStatusException(HttpStatus.NOT_FOUND, "Journal not found: " + id);
     }
 
     @Transactional
@@ -36,9 +69,16 @@ public class JournalService {
 
         Long uid = Auth.currentUserId(); // from JWT
 
-        User owner = userRepository.findById(uid).orElseThrow(
-                () -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User missing!")
-        );
+        // A cached profile proves the owner exists, so a proxy is enough to set the FK (no select)
+        User owner;
+        if (entityCaches.getUser(uid) != null) {
+            owner = userRepository.getReferenceById(uid);
+        } else {
+            owner = userRepository.findById(uid).orElseThrow(
+                    () -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User missing!")
+            );
+            entityCaches.cacheUser(UserMapper.toDto(owner, null));
+        }
 
         OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
 
@@ -50,21 +90,48 @@ public class JournalService {
                 .user(owner) // owner = caller
                 .build();
         journalRepository.save(journal);
-        return JournalMapper.toDto(journal);
+        JournalResponse dto = JournalMapper.toDto(journal);
+        entityCaches.putJournal(dto);
+        return dto;
     }
 
-    @Transactional(readOnly = true)
+    // Deliberately not @Transactional: callers waiting on another caller's in-flight load must not
+    // each hold a pool connection. findById runs in its own short read-only transaction.
     public JournalResponse getJournalById(Long id) {
 
         Long uid = Auth.currentUserId();
 
+        // cached and coalesced results are shared across callers; the ownership check runs per request
+        JournalResponse dto = entityCaches.getJournal(id);
+        if (dto == null) {
+            dto = journalLoads.execute(id, () -> loadJournal(id),
+                    () -> meterRegistry.counter("journal.reads.coalesced").increment());
+        }
+        if (!dto.getUserId().equals(uid)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not your journal");
+        }
+        return dto;
+    }
+
+    private JournalResponse loadJournal(Long id) {
         Journal journal = journalRepository.findById(id).orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Journal not found: " + id)
         );
+        JournalResponse dto = JournalMapper.toDto(journal); // user id comes off the proxy, no extra load
+        entityCaches.cacheJournal(dto);
+        return dto;
+    }
 
-        assertOwner(journal, uid);
-
-        return JournalMapper.toDto(journal);
+    // Current version of one of the caller's journals, without loading the message body.
+    // Empty when missing or not owned; the full read path reports which.
+    @Transactional(readOnly = true)
+    public Optional<Long> getJournalVersion(Long id) {
+        Long uid = Auth.currentUserId();
+        JournalResponse cached = entityCaches.getJournal(id);
+        if (cached != null && cached.getUserId().equals(uid)) {
+            return Optional.of(cached.getVersion());
+        }
+        return journalRepository.findVersionByIdAndUserId(id, uid);
     }
 
     @Transactional(readOnly = true)
@@ -72,72 +139,148 @@ public class JournalService {
 
         Long uid = Auth.currentUserId();
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        return journalRepository.findByUser_Id(uid, pageable).map(JournalMapper::toDto);
+        Pageable pageable = PageRequest.of(Math.max(page, 0), clampSize(size), Sort.by(Sort.Direction.DESC, "createdAt"));
+        List<JournalResponse> content = journalRepository.findByUser_Id(uid, pageable).stream().map(JournalMapper::toDto).toList();
+        // stored total instead of count(*); only looked up when the page alone can't tell
+        return PageableExecutionUtils.getPage(content, pageable, () -> journalStatsService.journalCount(uid));
     }
 
-    @Transactional
-    public JournalResponse updateJournalById(Long id, JournalRequest request) {
+    // Same listing, but as summaries: title + truncated preview, never the full message.
+    @Transactional(readOnly = true)
+    public Page<JournalSummaryResponse> getAllJournalSummaries(int page, int size) {
 
         Long uid = Auth.currentUserId();
 
-        Journal journal = journalRepository.findById(id).orElseThrow(
-                () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Journal not found: " + id)
-        );
+        Pageable pageable = PageRequest.of(Math.max(page, 0), clampSize(size), Sort.by(Sort.Direction.DESC, "createdAt"));
+        return PageableExecutionUtils.getPage(journalRepository.findSummariesByUserId(uid, pageable), pageable,
+                () -> journalStatsService.journalCount(uid));
+    }
+
+    // Keyset variant of getAllJournals: no OFFSET, no count(*), so every page costs the same.
+    // A null/blank cursor starts from the newest journal.
+    @Transactional(readOnly = true)
+    public CursorPage<JournalResponse> getJournalsByCursor(String cursor, int size) {
 
-        assertOwner(journal, uid);
+        Long uid = Auth.currentUserId();
 
-        JournalMapper.updateEntity(journal, request);
+        int limit = clampSize(size);
+        Pageable probe = PageRequest.ofSize(limit + 1); // one extra row tells us if there's a next page
 
-//        // update owner only if userId is provided (null means "leave as is")
-//        if(request.getUserId() != null) {
-//            journal.setUser(resolveOwner(request.getUserId()));
-//        }
+        List<Journal> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = journalRepository.findFirstKeysetPage(uid, probe);
+        } else {
+            JournalCursor after = JournalCursor.decode(cursor);
+            rows = journalRepository.findKeysetPageAfter(uid, after.createdAt(), after.id(), probe);
+        }
 
-        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-        journal.setLastModifiedAt(now);
+        return toCursorPage(rows, limit, JournalMapper::toDto, JournalCursor::encode);
+    }
 
-        journalRepository.save(journal);
+    @Transactional(readOnly = true)
+    public CursorPage<JournalSummaryResponse> getJournalSummariesByCursor(String cursor, int size) {
 
-        return JournalMapper.toDto(journal);
+        Long uid = Auth.currentUserId();
+
+        int limit = clampSize(size);
+        Pageable probe = PageRequest.ofSize(limit + 1);
+
+        List<JournalSummaryResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = journalRepository.findFirstSummaryKeysetPage(uid, probe);
+        } else {
+            JournalCursor after = JournalCursor.decode(cursor);
+            rows = journalRepository.findSummaryKeysetPageAfter(uid, after.createdAt(), after.id(), probe);
+        }
+
+        return toCursorPage(rows, limit, Function.identity(), s -> JournalCursor.encode(s.getCreatedAt(), s.getId()));
+    }
+
+    private static <R, T> CursorPage<T> toCursorPage(List<R> rows, int limit,
+                                                     Function<R, T> mapper, Function<R, String> cursorOf) {
+        boolean hasNext = rows.size() > limit;
+        List<R> slice = hasNext ? rows.subList(0, limit) : rows;
+
+        return CursorPage.<T>builder()
+                .content(slice.stream().map(mapper).toList())
+                .size(slice.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? cursorOf.apply(slice.get(slice.size() - 1)) : null)
+                .build();
     }
 
     @Transactional
-    public JournalResponse patchJournalById(Long id, JournalPatchRequest req) {
+    public JournalResponse updateJournalById(Long id, JournalRequest request) {
+        return updateJournalById(id, request, null);
+    }
+
+    // expectedVersion: from If-Match; null = unconditional
+    @Transactional
+    public JournalResponse updateJournalById(Long id, JournalRequest request, Long expectedVersion) {
 
         Long uid = Auth.currentUserId();
 
-        Journal journal = journalRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Journal not found: " + id));
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
 
-        assertOwner(journal, uid);
+        // with revisions on, the replaced content is read (and row-locked) first so it can be diffed
+        JournalRevisionService.Content previous = journalRevisionService.lockCurrent(id, uid);
 
-        JournalMapper.patchEntity(journal, req);
+        // ownership check + update + read-back in one statement (a second round trip after
+        // lockCurrent when revisions are on)
+        Journal journal = journalRepository.updateByIdAndUserId(id, uid, request.getTitle(), request.getMessage(), now, expectedVersion)
+                .orElseThrow(() -> writeRejected(id, uid));
+        recordRevision(previous, journal);
 
-//        // update owner only if userId is provided (null means "leave as is")
-//        if(req.getUserId() != null) {
-//            journal.setUser(resolveOwner(req.getUserId()));
-//        }
+        JournalResponse dto = JournalMapper.toDto(journal);
+        entityCaches.putJournal(dto); // write-through, applied on commit
+        return dto;
+    }
+
+    @Transactional
+    public JournalResponse patchJournalById(Long id, JournalPatchRequest req) {
+        return patchJournalById(id, req, null);
+    }
+
+    @Transactional
+    public JournalResponse patchJournalById(Long id, JournalPatchRequest req, Long expectedVersion) {
+
+        Long uid = Auth.currentUserId();
 
         OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-        journal.setLastModifiedAt(now);
 
-        journalRepository.save(journal);
+        JournalRevisionService.Content previous = journalRevisionService.lockCurrent(id, uid);
 
-        return JournalMapper.toDto(journal);
+        Journal journal = journalRepository.patchByIdAndUserId(id, uid,
+                        JournalMapper.patchValue(req.getTitle()), JournalMapper.patchValue(req.getMessage()), now, expectedVersion)
+                .orElseThrow(() -> writeRejected(id, uid));
+        recordRevision(previous, journal);
+
+        JournalResponse dto = JournalMapper.toDto(journal);
+        entityCaches.putJournal(dto); // write-through, applied on commit
+        return dto;
     }
 
+    @Transactional
     public void deleteJournalById(Long id) {
+        deleteJournalById(id, null);
+    }
 
-        Long uid = Auth.currentUserId();
+    @Transactional
+    public void deleteJournalById(Long id, Long expectedVersion) {
 
-        Journal journal = journalRepository.findById(id).orElseThrow(
-                () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Journal not found: " + id)
-        );
+        Long uid = Auth.currentUserId();
 
-        assertOwner(journal, uid);
+        if (journalRepository.deleteByIdAndUserId(id, uid, expectedVersion) == 0) {
+            throw writeRejected(id, uid);
+        }
+        journalRevisionService.deleteFor(List.of(id));
+        entityCaches.deleteJournal(id);
+    }
 
-        journalRepository.delete(journal);
+    private void recordRevision(JournalRevisionService.Content previous, Journal journal) {
+        if (previous == null) return; // revisions disabled
+        journalRevisionService.record(new JournalRevisionService.Change(journal.getId(), journal.getUser().getId(), previous,
+                new JournalRevisionService.Content(journal.getTitle(), journal.getMessage(), journal.getVersion(), journal.getLastModifiedAt())));
     }
 
 //    private User resolveOwner(Long userId) {
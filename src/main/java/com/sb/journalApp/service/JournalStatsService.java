@@ -0,0 +1,88 @@
+package com.sb.journalApp.service;
+
+import com.sb.journalApp.dto.JournalActivityDay;
+import com.sb.journalApp.dto.JournalStatsResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Reads the per-user statistics kept by the journals trigger (V12). Nothing here writes:
+ * the counts change in the same transaction as the journal rows, whoever writes them.
+ */
+@Service
+public class JournalStatsService {
+
+    /** Upper bound on the activity window returned with the stats. */
+    static final int MAX_ACTIVITY_DAYS = 366;
+
+    private final JdbcTemplate jdbc;
+
+    public JournalStatsService(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    // Stands in for count(*) on paged listings; run it in the same transaction as the page query.
+    public long journalCount(Long userId) {
+        List<Long> rows = jdbc.queryForList("select journal_count from journal_user_stats where user_id = ?",
+                Long.class, userId);
+        return rows.isEmpty() ? 0 : rows.get(0);
+    }
+
+    @Transactional(readOnly = true)
+    public JournalStatsResponse getStats(int days) {
+
+        Long uid = Auth.currentUserId();
+        int window = Math.max(0, Math.min(days, MAX_ACTIVITY_DAYS));
+
+        JournalStatsResponse stats = jdbc.query("""
+                        select journal_count, word_count, first_entry_at, last_entry_at
+                          from journal_user_stats where user_id = ?
+                        """,
+                (rs, i) -> JournalStatsResponse.builder()
+                        .journalCount(rs.getLong("journal_count"))
+                        .wordCount(rs.getLong("word_count"))
+                        .firstEntryAt(rs.getObject("first_entry_at", OffsetDateTime.class))
+                        .lastEntryAt(rs.getObject("last_entry_at", OffsetDateTime.class))
+                        .build(),
+                uid).stream().findFirst().orElseGet(JournalStatsResponse::new);
+
+        // one row per active day, so even years of daily writing is a few thousand rows
+        List<JournalActivityDay> activity = jdbc.query("""
+                        select day, created, edited from journal_user_activity
+                         where user_id = ? and (created > 0 or edited > 0)
+                         order by day
+                        """,
+                (rs, i) -> JournalActivityDay.builder()
+                        .date(rs.getObject("day", LocalDate.class))
+                        .created(rs.getInt("created"))
+                        .edited(rs.getInt("edited"))
+                        .build(),
+                uid);
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        int longest = 0;
+        int run = 0;
+        LocalDate previous = null;
+        for (JournalActivityDay day : activity) {
+            run = previous != null && previous.plusDays(1).equals(day.getDate()) ? run + 1 : 1;
+            longest = Math.max(longest, run);
+            previous = day.getDate();
+        }
+        // a streak is still current until a whole UTC day passes without writing
+        boolean current = previous != null && !previous.isBefore(today.minusDays(1));
+
+        LocalDate from = today.minusDays(window);
+        stats.setActiveDays(activity.size());
+        stats.setCurrentStreak(current ? run : 0);
+        stats.setLongestStreak(longest);
+        stats.setActivity(activity.stream().filter(d -> d.getDate().isAfter(from)).toList());
+        return stats;
+    }
+}
@@ -0,0 +1,166 @@
+package com.sb.journalApp.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sb.journalApp.dto.ImportResult;
+import com.sb.journalApp.dto.JournalResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk NDJSON export/import of a user's journals. Both directions hold at most one
+ * fetch/batch worth of rows in memory, however many journals the user has.
+ */
+@Service
+public class JournalTransferService {
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate readOnlyTx;
+    private final TransactionTemplate tx;
+    private final ObjectWriter lineWriter;
+    private final ObjectReader lineReader;
+    private final int batchSize;
+
+    public JournalTransferService(DataSource dataSource,
+                                  PlatformTransactionManager txManager,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.transfer.fetch-size:500}") int fetchSize,
+                                  @Value("${app.transfer.batch-size:500}") int batchSize) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(fetchSize); // pgjdbc only streams with a fetch size inside a transaction
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.tx = new TransactionTemplate(txManager);
+        this.lineWriter = objectMapper.writerFor(JournalResponse.class);
+        this.lineReader = objectMapper.readerFor(JournalResponse.class);
+        this.batchSize = Math.max(JournalIds.BLOCK, batchSize - batchSize % JournalIds.BLOCK);
+    }
+
+    // Runs on the async response thread, so the caller's uid is captured up front by the controller.
+    public void exportNdjson(Long uid, OutputStream out) {
+        readOnlyTx.executeWithoutResult(status -> jdbc.query("""
+                        select id, title, message, created_at, last_modified_at, user_id, version
+                          from journals
+                         where user_id = ?
+                         order by created_at, id
+                        """,
+                (RowCallbackHandler) rs -> {
+                    JournalResponse line = JournalResponse.builder()
+                            .id(rs.getLong("id"))
+                            .title(rs.getString("title"))
+                            .message(rs.getString("message"))
+                            .createdAt(rs.getObject("created_at", OffsetDateTime.class))
+                            .lastModifiedAt(rs.getObject("last_modified_at", OffsetDateTime.class))
+                            .userId(rs.getLong("user_id"))
+                            .version(rs.getLong("version"))
+                            .build();
+                    try {
+                        out.write(lineWriter.writeValueAsBytes(line));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e); // client went away; abort the cursor
+                    }
+                },
+                uid));
+    }
+
+    /**
+     * Reads one journal per line (the export format; id/userId/version are ignored) and inserts
+     * them for the caller in JDBC batches. A batch is read and validated before a connection is
+     * taken and committed on its own, so a slow upload never holds a connection or locks while
+     * waiting for the client. A bad line stops the import: 400 if nothing was committed yet,
+     * otherwise an incomplete result with the count of journals already imported.
+     */
+    public ImportResult importNdjson(InputStream in) {
+
+        Long uid = Auth.currentUserId();
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+
+        long imported = 0;
+        List<JournalResponse> batch = new ArrayList<>(batchSize);
+
+        try (MappingIterator<JournalResponse> lines = lineReader.readValues(in)) {
+            while (lines.hasNextValue()) {
+                long lineNo = lines.getCurrentLocation().getLineNr();
+                JournalResponse line = lines.nextValue();
+                validate(line, lineNo, now);
+                batch.add(line);
+                if (batch.size() == batchSize) {
+                    imported += flush(batch, uid, now);
+                }
+            }
+        } catch (IOException | ResponseStatusException e) {
+            String error = e instanceof ResponseStatusException rse ? rse.getReason() : "Malformed NDJSON: " + e.getMessage();
+            if (imported == 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, error);
+            }
+            return ImportResult.builder().imported(imported).complete(false).error(error).build();
+        }
+        imported += flush(batch, uid, now);
+
+        return ImportResult.builder().imported(imported).complete(true).build();
+    }
+
+    private static void validate(JournalResponse line, long lineNo, OffsetDateTime now) {
+        if (line.getTitle() == null || line.getTitle().isBlank() || line.getTitle().length() > 255) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "line " + lineNo + ": title must be 1-255 characters");
+        }
+        if (line.getMessage() == null || line.getMessage().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "line " + lineNo + ": message must not be blank");
+        }
+        // future rows would land in the default partition and block creating that month (V10)
+        if (line.getCreatedAt() != null && line.getCreatedAt().isAfter(now)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "line " + lineNo + ": createdAt is in the future");
+        }
+    }
+
+    // One transaction per batch; the connection is only held for the insert itself.
+    private int flush(List<JournalResponse> batch, Long uid, OffsetDateTime now) {
+        if (batch.isEmpty()) return 0;
+        tx.executeWithoutResult(status -> insert(batch, uid, now));
+        int n = batch.size();
+        batch.clear();
+        return n;
+    }
+
+    private void insert(List<JournalResponse> batch, Long uid, OffsetDateTime now) {
+        List<Long> ids = JournalIds.reserve(jdbc, batch.size());
+
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            JournalResponse line = batch.get(i);
+            long id = ids.get(i);
+            OffsetDateTime createdAt = line.getCreatedAt() != null ? line.getCreatedAt() : now;
+            OffsetDateTime modifiedAt = line.getLastModifiedAt() != null ? line.getLastModifiedAt() : createdAt;
+            args.add(new Object[] {
+                    id, line.getTitle(), line.getMessage(),
+                    Timestamp.from(createdAt.toInstant()), Timestamp.from(modifiedAt.toInstant()), uid
+            });
+        }
+
+        // reWriteBatchedInserts on the JDBC URL turns this into multi-row INSERTs
+        jdbc.batchUpdate("""
+                insert into journals (id, title, message, created_at, last_modified_at, user_id, version)
+                values (?, ?, ?, ?, ?, ?, 0)
+                """, args);
+    }
+}
@@ -0,0 +1,170 @@
+package com.sb.journalApp.service;
+
+import com.sb.journalApp.dto.TokenResponse;
+import com.sb.journalApp.model.RefreshToken;
+import com.sb.journalApp.repository.RefreshTokenRepository;
+import com.sb.journalApp.repository.RotatedRefreshTokenView;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues access JWTs plus rotating, server-side refresh tokens. Refreshing never touches
+ * BCrypt: it is one indexed update on refresh_tokens, one insert and one JWT encode.
+ */
+@Service
+public class TokenService {
+
+    private final JwtEncoder jwtEncoder;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final MeterRegistry meterRegistry;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+    private final Duration reuseWindow;
+    private final int purgeBatchSize;
+    private final SecureRandom random = new SecureRandom();
+
+    public TokenService(JwtEncoder jwtEncoder,
+                        RefreshTokenRepository refreshTokenRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.jwt.access-ttl:1h}") Duration accessTtl,
+                        @Value("${app.jwt.refresh-ttl:30d}") Duration refreshTtl,
+                        @Value("${app.jwt.refresh-reuse-window:7d}") Duration reuseWindow,
+                        @Value("${app.jwt.purge.batch-size:1000}") int purgeBatchSize) {
+        this.jwtEncoder = jwtEncoder;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.meterRegistry = meterRegistry;
+        this.accessTtl = accessTtl;
+        this.refreshTtl = refreshTtl;
+        this.reuseWindow = reuseWindow;
+        this.purgeBatchSize = Math.max(1, purgeBatchSize);
+    }
+
+    /** After a successful password check: starts a new refresh-token family. */
+    @Transactional
+    public TokenResponse issue(Long uid, String username) {
+        return issue(uid, username, UUID.randomUUID(), "login");
+    }
+
+    /** Swaps a live refresh token for a new pair; the presented token is revoked in the same statement. */
+    // noRollbackFor: a reuse-triggered family revocation must stick even though we answer 401
+    @Transactional(noRollbackFor = ResponseStatusException.class)
+    public TokenResponse refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+        }
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        String hash = hash(refreshToken);
+
+        Optional<RotatedRefreshTokenView> rotated = refreshTokenRepository.consume(hash, now);
+        if (rotated.isEmpty()) {
+            // Already-revoked token presented again: someone else may hold the family. Kill it.
+            refreshTokenRepository.findByTokenHash(hash)
+                    .filter(t -> t.getRevokedAt() != null)
+                    .ifPresent(t -> refreshTokenRepository.revokeFamily(t.getFamilyId(), now));
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+        }
+
+        RotatedRefreshTokenView r = rotated.get();
+        return issue(r.getUserId(), r.getUsername(), r.getFamilyId(), "refresh");
+    }
+
+    /** Logout: revokes the presented token's whole family. Unknown tokens are ignored. */
+    @Transactional
+    public void revoke(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) return;
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .ifPresent(t -> refreshTokenRepository.revokeFamily(t.getFamilyId(), now));
+    }
+
+    /** Credentials changed or account removed: every outstanding refresh token stops working. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void revokeAllForUser(Long uid) {
+        refreshTokenRepository.revokeAllForUser(uid, OffsetDateTime.now(ZoneOffset.UTC));
+    }
+
+    // Expired rows can never be used again, and a revoked row only matters while its reuse would
+    // still be worth detecting; past that, presenting it is just an unknown token (401 either way).
+    // Each batch is its own short transaction.
+    @Scheduled(initialDelayString = "${app.jwt.purge.interval:1h}", fixedDelayString = "${app.jwt.purge.interval:1h}")
+    public void purge() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        OffsetDateTime revokedBefore = now.minus(reuseWindow);
+        int deleted;
+        do {
+            deleted = refreshTokenRepository.purge(now, revokedBefore, purgeBatchSize);
+            meterRegistry.counter("auth.refresh_tokens.purged").increment(deleted);
+        } while (deleted == purgeBatchSize && !Thread.currentThread().isInterrupted());
+    }
+
+    private TokenResponse issue(Long uid, String username, UUID family, String flow) {
+        Instant now = Instant.now();
+
+        var claims = JwtClaimsSet.builder()
+                .issuer("journalApp")
+                .issuedAt(now)
+                .expiresAt(now.plus(accessTtl))
+                .subject(username)
+                .claim("uid", uid)
+                .claim("roles", List.of("USER"))
+                .build();
+        var header = JwsHeader.with(MacAlgorithm.HS256).build();
+        String accessToken = meterRegistry.timer("auth.jwt.encode", "flow", flow)
+                .record(() -> jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue());
+
+        byte[] raw = new byte[32];
+        random.nextBytes(raw);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+        OffsetDateTime issuedAt = now.atOffset(ZoneOffset.UTC);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .userId(uid)
+                .familyId(family)
+                .tokenHash(hash(refreshToken))
+                .createdAt(issuedAt)
+                .expiresAt(issuedAt.plus(refreshTtl))
+                .build());
+
+        return TokenResponse.builder()
+                .tokenType("Bearer")
+                .accessToken(accessToken)
+                .expiresInSeconds(accessTtl.toSeconds())
+                .refreshToken(refreshToken)
+                .refreshExpiresInSeconds(refreshTtl.toSeconds())
+                .build();
+    }
+
+    // Refresh tokens are 256 random bits, so a fast hash is enough (no BCrypt needed)
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
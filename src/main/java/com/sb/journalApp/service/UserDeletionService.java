@@ -0,0 +1,244 @@
+package com.sb.journalApp.service;
+
+import com.sb.journalApp.dto.UserDeletionJobResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Background user deletion (V13). The request only tombstones the user; a scheduled job then
+ * removes their revisions and journals in chunks, one short transaction per chunk, pausing in
+ * between. Progress is committed with each chunk and the job is claimed with a lease, so a
+ * restarted or second instance simply continues where the last chunk left off.
+ */
+@Service
+public class UserDeletionService {
+
+    private static final RowMapper<UserDeletionJobResponse> JOB = (rs, i) -> UserDeletionJobResponse.builder()
+            .id(rs.getLong("id"))
+            .userId(rs.getLong("user_id"))
+            .status(rs.getString("status"))
+            .journalsTotal(rs.getLong("journals_total"))
+            .journalsDeleted(rs.getLong("journals_deleted"))
+            .attempts(rs.getInt("attempts"))
+            .lastError(rs.getString("last_error"))
+            .requestedAt(rs.getObject("requested_at", OffsetDateTime.class))
+            .startedAt(rs.getObject("started_at", OffsetDateTime.class))
+            .updatedAt(rs.getObject("updated_at", OffsetDateTime.class))
+            .finishedAt(rs.getObject("finished_at", OffsetDateTime.class))
+            .build();
+
+    // Each chunk goes through the (user_id, ...) indexes and never touches more than chunkSize rows.
+    private static final String DELETE_REVISIONS_SQL = """
+            delete from journal_revisions
+             where id in (select id from journal_revisions where user_id = ? limit ?)
+            """;
+    private static final String DELETE_JOURNALS_SQL = """
+            delete from journals
+             where (id, created_at) in (select id, created_at from journals where user_id = ? limit ?)
+            returning id
+            """;
+    private static final String DELETE_ARCHIVED_SQL = """
+            delete from journals_archive
+             where (id, created_at) in (select id, created_at from journals_archive where user_id = ? limit ?)
+            """;
+
+    private record Claim(long id, long userId) {}
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final EntityCaches entityCaches;
+    private final TokenService tokenService;
+    private final UserTombstones tombstones;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final Duration pause;
+    private final Duration maxRun;
+    private final Duration lease;
+
+    public UserDeletionService(DataSource dataSource,
+                               PlatformTransactionManager txManager,
+                               EntityCaches entityCaches,
+                               TokenService tokenService,
+                               UserTombstones tombstones,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.users.deletion.chunk-size:1000}") int chunkSize,
+                               @Value("${app.users.deletion.pause:200ms}") Duration pause,
+                               @Value("${app.users.deletion.max-run:20s}") Duration maxRun,
+                               @Value("${app.users.deletion.lease:2m}") Duration lease) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.tx = new TransactionTemplate(txManager);
+        this.entityCaches = entityCaches;
+        this.tokenService = tokenService;
+        this.tombstones = tombstones;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.pause = pause;
+        this.maxRun = maxRun;
+        this.lease = lease.compareTo(maxRun) > 0 ? lease : maxRun.multipliedBy(2); // outlive one run
+    }
+
+    /**
+     * Hides the user right away (no login, no refresh, access tokens rejected, gone from user
+     * listings; the username is free again) and queues the data removal. 404 if the user doesn't exist or is already deleted.
+     */
+    @Transactional
+    public UserDeletionJobResponse tombstone(Long userId) {
+        // letters-only usernames (UserRequest) can never collide with the placeholder
+        int updated = jdbc.update("""
+                update users set deleted_at = now(), username = '~deleted-' || id, password = '!'
+                 where id = ? and deleted_at is null
+                """, userId);
+        if (updated == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found: " + userId);
+        }
+        tokenService.revokeAllForUser(userId);
+        tombstones.markDeleted(userId); // access tokens too, from commit on
+
+        // Stats go first so the journals trigger finds nothing to update while chunks are deleted.
+        List<Long> live = jdbc.queryForList("delete from journal_user_stats where user_id = ? returning journal_count",
+                Long.class, userId);
+        jdbc.update("delete from journal_user_activity where user_id = ?", userId);
+        Long archived = jdbc.queryForObject("select count(*) from journals_archive where user_id = ?", Long.class, userId);
+        long total = (live.isEmpty() ? 0 : live.get(0)) + (archived == null ? 0 : archived);
+
+        UserDeletionJobResponse job = jdbc.queryForObject("""
+                insert into user_deletion_jobs (user_id, status, journals_total, requested_at, updated_at)
+                values (?, 'PENDING', ?, now(), now())
+                returning *
+                """, JOB, userId, total);
+        entityCaches.evictUser(userId);
+        return job;
+    }
+
+    @Transactional(readOnly = true)
+    public UserDeletionJobResponse getJob(Long jobId) {
+        return jdbc.query("select * from user_deletion_jobs where id = ?", JOB, jobId).stream().findFirst()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Deletion job not found: " + jobId));
+    }
+
+    // Runs on the shared scheduler thread, so each run stops after maxRun and releases the job;
+    // the next run (here or on another instance) picks it up again.
+    @Scheduled(initialDelayString = "${app.users.deletion.poll-interval:5s}",
+               fixedDelayString = "${app.users.deletion.poll-interval:5s}")
+    public void work() {
+        Instant deadline = Instant.now().plus(maxRun);
+        Claim claim;
+        while (Instant.now().isBefore(deadline) && !Thread.currentThread().isInterrupted()
+                && (claim = claim()) != null) {
+            try {
+                boolean done = run(claim, deadline);
+                if (!done) {
+                    jdbc.update("update user_deletion_jobs set lease_until = null where id = ?", claim.id());
+                }
+            } catch (RuntimeException e) {
+                // leave the lease in place: it doubles as the back-off before the next attempt
+                jdbc.update("update user_deletion_jobs set last_error = ?, updated_at = now() where id = ?",
+                        e.getClass().getSimpleName() + ": " + e.getMessage(), claim.id());
+                meterRegistry.counter("users.deletion.failures").increment();
+                return;
+            }
+        }
+    }
+
+    // Oldest open job whose lease is free; SKIP LOCKED keeps instances from claiming the same one.
+    // A job waits out the tombstone check's cache TTL first, so by the time the purge starts no
+    // instance still accepts the user's tokens and nothing new is written for them.
+    private Claim claim() {
+        List<Claim> claimed = jdbc.query("""
+                        update user_deletion_jobs
+                           set status = 'RUNNING', attempts = attempts + 1, lease_until = ?,
+                               started_at = coalesce(started_at, now()), updated_at = now()
+                         where id = (select id from user_deletion_jobs
+                                      where status <> 'DONE' and (lease_until is null or lease_until < now())
+                                        and requested_at <= ?
+                                      order by id limit 1
+                                      for update skip locked)
+                        returning id, user_id
+                        """,
+                (rs, i) -> new Claim(rs.getLong("id"), rs.getLong("user_id")),
+                Timestamp.from(Instant.now().plus(lease)),
+                Timestamp.from(Instant.now().minus(tombstones.ttl())));
+        return claimed.isEmpty() ? null : claimed.get(0);
+    }
+
+    // True once the user row itself is gone. Every step is "delete some of what's left", so
+    // resuming after a crash needs no state beyond the job row.
+    private boolean run(Claim claim, Instant deadline) {
+        while (Instant.now().isBefore(deadline)) {
+            Boolean progressed = tx.execute(status -> chunk(claim));
+            if (!Boolean.TRUE.equals(progressed)) {
+                tx.executeWithoutResult(status -> finish(claim));
+                return true;
+            }
+            if (!sleep(pause)) return false;
+        }
+        return false;
+    }
+
+    // One bounded transaction: revisions first (usually the most rows, and only reachable by
+    // user_id once their journals are gone), then live journals, then archived ones.
+    // False when nothing was left to delete.
+    private boolean chunk(Claim claim) {
+        if (jdbc.update(DELETE_REVISIONS_SQL, claim.userId(), chunkSize) > 0) {
+            touch(claim, 0);
+            return true;
+        }
+        List<Long> ids = jdbc.queryForList(DELETE_JOURNALS_SQL, Long.class, claim.userId(), chunkSize);
+        int deleted = ids.size();
+        ids.forEach(entityCaches::deleteJournal); // applied on commit
+        if (deleted == 0) {
+            deleted = jdbc.update(DELETE_ARCHIVED_SQL, claim.userId(), chunkSize);
+        }
+        if (deleted == 0) return false;
+        touch(claim, deleted);
+        meterRegistry.counter("users.deletion.journals_deleted").increment(deleted);
+        return true;
+    }
+
+    private void touch(Claim claim, int deleted) {
+        jdbc.update("""
+                update user_deletion_jobs
+                   set journals_deleted = journals_deleted + ?, lease_until = ?, updated_at = now()
+                 where id = ?
+                """, deleted, Timestamp.from(Instant.now().plus(lease)), claim.id());
+    }
+
+    // The rest (refresh tokens, anything a request in flight at tombstone time wrote) is small
+    // enough for the cascade.
+    private void finish(Claim claim) {
+        jdbc.update("delete from users where id = ?", claim.userId());
+        jdbc.update("""
+                update user_deletion_jobs
+                   set status = 'DONE', lease_until = null, last_error = null, finished_at = now(), updated_at = now()
+                 where id = ?
+                """, claim.id());
+        meterRegistry.counter("users.deletion.completed").increment();
+    }
+
+    private static boolean sleep(Duration pause) {
+        if (pause.isZero() || pause.isNegative()) return true;
+        try {
+            Thread.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,54 +1,108 @@
 package com.sb.journalApp.service;
 
+import com.sb.journalApp.dto.UserDeletionJobResponse;
 import com.sb.journalApp.dto.UserRequest;
 import com.sb.journalApp.dto.UserResponse;
 import com.sb.journalApp.mapper.UserMapper;
 import com.sb.journalApp.model.User;
+import com.sb.journalApp.repository.JournalRepository;
+import com.sb.journalApp.repository.UserJournalIdView;
 import com.sb.journalApp.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
+@Timed(value = "user.service", description = "Latency per service method (tags: class, method)")
 public class UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder; // inject bean
+    private final JournalRepository journalRepository;
+    private final PasswordHashingService passwordHashing;
+    private final EntityCaches entityCaches;
+    private final TokenService tokenService;
+    private final UserDeletionService userDeletionService;
+    private final TransactionTemplate tx;
+
+    private UserResponse toDto(User user) {
+        return UserMapper.toDto(user, journalRepository.findIdsByUserId(user.getId()));
+    }
 
-    @Transactional
+    // Profile fields come from the cache when possible; journalIds change with every journal write,
+    // so they are always read fresh (id-only query) and never cached.
+    private UserResponse cachedToDto(Long id) {
+        UserResponse profile = entityCaches.getUser(id);
+        if (profile == null) {
+            User user = userRepository.findById(id).orElseThrow(
+                    () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found: " + id)
+            );
+            profile = UserMapper.toDto(user, null);
+            entityCaches.cacheUser(profile);
+        }
+        return UserResponse.builder()
+                .id(profile.getId())
+                .name(profile.getName())
+                .username(profile.getUsername())
+                .journalIds(journalRepository.findIdsByUserId(id))
+                .build();
+    }
+
+    // New hash for an update, or null when the stored one should be kept: password omitted, or the
+    // same as before (one verify instead of encode + logging out every session for nothing).
+    private String newHashIfChanged(User user, String rawPassword) {
+        if (rawPassword == null || rawPassword.isBlank()
+                || passwordHashing.matches(rawPassword, user.getPassword())) {
+            return null;
+        }
+        return passwordHashing.encode(rawPassword);
+    }
+
+    // The writes below are deliberately not @Transactional: BCrypt (queue wait + hash) runs before
+    // any transaction starts, so a signup or password-change burst never holds a pool connection
+    // while hashing. Only the short persist step runs in tx.
     public UserResponse createUser(UserRequest userRequest) {
         if (userRepository.existsByUsernameIgnoreCase(userRequest.getUsername())) {
             throw new IllegalArgumentException("username already exists: " + userRequest.getUsername());
         }
-        String hashPassword = passwordEncoder.encode(userRequest.getPassword());
-        User user = UserMapper.toNewEntity(userRequest, hashPassword);
-        userRepository.save(user);
-        return UserMapper.toDto(user);
+        String hashPassword = passwordHashing.encode(userRequest.getPassword());
+        return tx.execute(status -> {
+            User user = UserMapper.toNewEntity(userRequest, hashPassword);
+            userRepository.save(user); // a racing signup for the same name still hits ux_users_username
+            entityCaches.putUser(UserMapper.toDto(user, null));
+            return UserMapper.toDto(user, List.of()); // brand new user owns no journals yet
+        });
     }
 
     @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
-        User user = userRepository.findById(id).orElseThrow(
-                () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found: " + id)
-        );
-
-        return UserMapper.toDto(user);
+        return cachedToDto(id);
     }
 
     @Transactional(readOnly = true)
     public Page<UserResponse> getAllUsers(int page, int size) {
         Page<User> pages = userRepository.findAll(PageRequest.of(page, size, Sort.by("id").ascending()));
-        return pages.map(UserMapper::toDto);
+
+        // one batched id query for the whole page instead of one collection load per user
+        List<Long> userIds = pages.getContent().stream().map(User::getId).toList();
+        Map<Long, List<Long>> journalIdsByUser = userIds.isEmpty() ? Map.of()
+                : journalRepository.findIdsByUserIds(userIds).stream()
+                    .collect(Collectors.groupingBy(UserJournalIdView::getUserId,
+                            Collectors.mapping(UserJournalIdView::getJournalId, Collectors.toList())));
+
+        return pages.map(u -> UserMapper.toDto(u, journalIdsByUser.getOrDefault(u.getId(), List.of())));
     }
 
-    @Transactional
     public UserResponse update(Long id, UserRequest userRequest) {
         User user = userRepository.findById(id).orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found: " + id)
@@ -60,32 +114,38 @@ public class UserService {
             throw new IllegalArgumentException("username already exists :" + userRequest.getUsername());
         }
 
-        String hashPassword = passwordEncoder.encode(userRequest.getPassword());
-        UserMapper.updateEntity(user, userRequest, hashPassword);
+        String hashPassword = newHashIfChanged(user, userRequest.getPassword());
+        return tx.execute(status -> persistUpdate(id, userRequest, hashPassword));
+    }
 
-        userRepository.save((user));
+    // Re-reads the user inside the transaction; the copy the hash was checked against is detached.
+    private UserResponse persistUpdate(Long id, UserRequest userRequest, String hashPassword) {
+        User user = userRepository.findById(id).orElseThrow(
+                () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found: " + id)
+        );
+        UserMapper.updateEntity(user, userRequest, hashPassword);
 
-        return UserMapper.toDto(user);
+        userRepository.save(user);
+        if (hashPassword != null) {
+            tokenService.revokeAllForUser(user.getId()); // new credentials: old sessions must log in again
+        }
+        entityCaches.putUser(UserMapper.toDto(user, null)); // write-through, applied on commit
 
+        return toDto(user);
     }
 
+    // Tombstone now, purge in the background: a single cascading delete of a long history
+    // would be one huge transaction. The returned job reports progress.
     @Transactional
-    public void deleteUserById(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found: " + id);
-        }
-
-        userRepository.deleteById(id);
-
+    public UserDeletionJobResponse deleteUserById(Long id) {
+        return userDeletionService.tombstone(id);
     }
 
+    @Transactional(readOnly = true)
     public UserResponse getCurrentUser() {
-        Long uid = Auth.currentUserId();
-        var u = userRepository.findById(uid).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        return UserMapper.toDto(u);
+        return cachedToDto(Auth.currentUserId());
     }
 
-    @Transactional
     public UserResponse updateCurrent(UserRequest req) {
         Long uid = Auth.currentUserId();
         var u = userRepository.findById(uid).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
@@ -94,15 +154,18 @@ public class UserService {
                 && userRepository.existsByUsernameIgnoreCase(req.getUsername())) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "username already exists");
         }
-        var hash = passwordEncoder.encode(req.getPassword()); // or only if provided (relax validation if you want)
-        UserMapper.updateEntity(u, req, hash);
-        return UserMapper.toDto(userRepository.save(u));
+        var hash = newHashIfChanged(u, req.getPassword());
+        return tx.execute(status -> persistUpdate(uid, req, hash));
     }
 
     @Transactional
-    public void deleteCurrent() {
-        Long uid = Auth.currentUserId();
-        userRepository.deleteById(uid);
+    public UserDeletionJobResponse deleteCurrent() {
+        return userDeletionService.tombstone(Auth.currentUserId());
+    }
+
+    @Transactional(readOnly = true)
+    public UserDeletionJobResponse getDeletionJob(Long jobId) {
+        return userDeletionService.getJob(jobId);
     }
 
 
@@ -0,0 +1,61 @@
+package com.sb.journalApp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Whether a token's uid still belongs to a live user. Checked on every authenticated request
+ * (see JwtConfig), so answers are cached per uid for {@code ttl}. This instance learns about
+ * its own tombstones on commit; other instances pick them up within {@code ttl}, which is also
+ * how long UserDeletionService waits before purging.
+ */
+@Service
+public class UserTombstones {
+
+    private final JdbcTemplate jdbc;
+    private final Cache<Long, Boolean> deleted;
+    private final Duration ttl;
+
+    public UserTombstones(DataSource dataSource,
+                          @Value("${app.users.deletion.token-check-ttl:30s}") Duration ttl,
+                          @Value("${app.users.deletion.token-check-max-size:100000}") long maxSize) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.ttl = ttl;
+        this.deleted = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxSize).build();
+    }
+
+    public Duration ttl() {
+        return ttl;
+    }
+
+    // A uid with no users row at all (already purged) counts as deleted too.
+    public boolean isDeleted(long userId) {
+        return deleted.get(userId, id -> {
+            List<Boolean> live = jdbc.queryForList("select deleted_at is null from users where id = ?", Boolean.class, id);
+            return live.isEmpty() || !live.get(0);
+        });
+    }
+
+    // Call inside the tombstoning transaction; takes effect here once it commits.
+    public void markDeleted(long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleted.put(userId, true);
+                }
+            });
+        } else {
+            deleted.put(userId, true);
+        }
+    }
+}
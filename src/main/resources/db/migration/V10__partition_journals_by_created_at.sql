@@ -0,0 +1,106 @@
+-- Range-partition journals by month of created_at. Each month is its own table with its own
+-- (small) indexes, so vacuum and index bloat stay bounded, queries with a created_at range
+-- (keyset pages, cursors) prune to the months they touch, and cold months can be detached
+-- into journals_archive without rewriting anything (see JournalPartitionService).
+--
+-- Postgres requires the partition key in every unique constraint, so the primary key
+-- becomes (id, created_at); ids still come from journals_id_seq and stay unique in practice.
+-- Lookups by id alone probe each partition's primary-key index.
+
+ALTER SEQUENCE journals_id_seq OWNED BY NONE;   -- keep the sequence when the old table goes
+ALTER TABLE journals RENAME TO journals_unpartitioned;
+
+CREATE TABLE journals (
+  id               BIGINT NOT NULL DEFAULT nextval('journals_id_seq'),
+  title            VARCHAR(255) NOT NULL,
+  message          TEXT NOT NULL,
+  created_at       TIMESTAMPTZ NOT NULL,
+  last_modified_at TIMESTAMPTZ NOT NULL,
+  user_id          BIGINT NOT NULL,
+  version          BIGINT NOT NULL DEFAULT 0,
+  search_vector    tsvector
+    GENERATED ALWAYS AS (
+      setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+      setweight(to_tsvector('english', coalesce(message, '')), 'B')
+    ) STORED,
+  CONSTRAINT pk_journals PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE journals_id_seq OWNED BY journals.id;
+
+-- Catches rows outside every monthly partition (e.g. an import of very old journals).
+CREATE TABLE journals_default PARTITION OF journals DEFAULT;
+
+-- Creates the partition holding p_month (UTC month) unless it already exists, attached to
+-- journals or already moved to journals_archive. Used here and by the scheduled job.
+CREATE OR REPLACE FUNCTION journals_ensure_partition(p_month date) RETURNS boolean AS $$
+DECLARE
+  v_from date := date_trunc('month', p_month)::date;
+  v_to   date := (date_trunc('month', p_month) + interval '1 month')::date;
+  v_name text := 'journals_p' || to_char(v_from, 'YYYYMM');
+BEGIN
+  IF to_regclass(v_name) IS NOT NULL THEN
+    RETURN false;
+  END IF;
+  EXECUTE format('CREATE TABLE %I PARTITION OF journals FOR VALUES FROM (%L) TO (%L)',
+                 v_name, v_from::timestamp AT TIME ZONE 'UTC', v_to::timestamp AT TIME ZONE 'UTC');
+  RETURN true;
+END
+$$ LANGUAGE plpgsql;
+
+-- One partition per month from the oldest journal through three months ahead.
+DO $$
+DECLARE
+  v_month date := date_trunc('month', coalesce((SELECT min(created_at) FROM journals_unpartitioned), now()) AT TIME ZONE 'UTC')::date;
+BEGIN
+  WHILE v_month <= (date_trunc('month', now() AT TIME ZONE 'UTC') + interval '3 months')::date LOOP
+    PERFORM journals_ensure_partition(v_month);
+    v_month := (v_month + interval '1 month')::date;
+  END LOOP;
+END
+$$;
+
+INSERT INTO journals (id, title, message, created_at, last_modified_at, user_id, version)
+SELECT id, title, message, created_at, last_modified_at, user_id, version
+  FROM journals_unpartitioned;
+
+DROP TABLE journals_unpartitioned;
+
+ALTER TABLE journals
+  ADD CONSTRAINT fk_journals_user
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
+
+-- Same indexes as before, now per partition. The old standalone user_id and created_at
+-- indexes are not recreated: (user_id, created_at, id) covers user_id lookups and the
+-- ON DELETE CASCADE, and created_at ranges are served by partition pruning.
+CREATE INDEX idx_journals_user_created_id ON journals (user_id, created_at DESC, id DESC);
+CREATE INDEX idx_journals_search_vector ON journals USING GIN (search_vector);
+
+-- Cold months detached from journals are re-attached here: moved, not copied. Not visible
+-- through the API; same shape so a month can be attached back if needed.
+CREATE TABLE journals_archive (LIKE journals INCLUDING DEFAULTS INCLUDING GENERATED)
+  PARTITION BY RANGE (created_at);
+
+ALTER TABLE journals_archive
+  ADD CONSTRAINT pk_journals_archive PRIMARY KEY (id, created_at);
+ALTER TABLE journals_archive
+  ADD CONSTRAINT fk_journals_archive_user
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
+CREATE INDEX idx_journals_archive_user_created_id ON journals_archive (user_id, created_at DESC, id DESC);
+
+-- Moves one monthly partition (journals_pYYYYMM) from journals to journals_archive.
+CREATE OR REPLACE FUNCTION journals_archive_partition(p_name text) RETURNS void AS $$
+DECLARE
+  v_from date := to_date(substring(p_name from '^journals_p(\d{6})$'), 'YYYYMM');
+  v_to   date := (v_from + interval '1 month')::date;
+BEGIN
+  IF v_from IS NULL THEN
+    RAISE EXCEPTION 'not a monthly journals partition: %', p_name;
+  END IF;
+  EXECUTE format('ALTER TABLE journals DETACH PARTITION %I', p_name);
+  -- the search index is only useful for live data; drop it before the month goes cold
+  EXECUTE format('DROP INDEX IF EXISTS %I', p_name || '_search_vector_idx');
+  EXECUTE format('ALTER TABLE journals_archive ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                 p_name, v_from::timestamp AT TIME ZONE 'UTC', v_to::timestamp AT TIME ZONE 'UTC');
+END
+$$ LANGUAGE plpgsql;
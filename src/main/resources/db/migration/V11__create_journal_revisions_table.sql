@@ -0,0 +1,22 @@
+-- Edit history of journals. Each row is the state after one write (its journal version):
+-- either a full snapshot, or a delta against the previous version stored as
+-- "keep prefix_len chars, then body, then keep the last suffix_len chars". A snapshot is
+-- written every app.journals.revisions.snapshot-interval versions, so rebuilding any
+-- version replays at most that many deltas. journals' primary key includes created_at
+-- (V10), so there is no FK to it; revisions are removed with the journal by the app,
+-- and with the user by the cascade below.
+CREATE TABLE IF NOT EXISTS journal_revisions (
+  id          BIGSERIAL PRIMARY KEY,
+  journal_id  BIGINT NOT NULL,
+  user_id     BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+  version     BIGINT NOT NULL,
+  snapshot    BOOLEAN NOT NULL,
+  title       VARCHAR(255) NOT NULL,
+  body        TEXT NOT NULL,
+  prefix_len  INT NOT NULL DEFAULT 0,
+  suffix_len  INT NOT NULL DEFAULT 0,
+  created_at  TIMESTAMPTZ NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_journal_revisions_journal_version ON journal_revisions (journal_id, version);
+CREATE INDEX IF NOT EXISTS idx_journal_revisions_user_id ON journal_revisions (user_id);
@@ -0,0 +1,152 @@
+-- Per-user journal statistics, kept current by a row trigger on journals so every writer
+-- (JournalService, the batch and import paths, user deletion) updates them in the same
+-- transaction as the journal change. Paged listings read journal_count instead of running
+-- count(*), and GET /api/journals/stats serves totals and streaks from these two tables.
+
+-- Whitespace-separated words; used by the trigger and the backfill so both count alike.
+CREATE OR REPLACE FUNCTION journal_word_count(p_text text) RETURNS bigint AS $$
+  SELECT CASE WHEN p_text IS NULL OR btrim(p_text) = '' THEN 0
+              ELSE coalesce(array_length(regexp_split_to_array(btrim(p_text), '\s+'), 1), 0) END
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE;
+
+CREATE TABLE IF NOT EXISTS journal_user_stats (
+  user_id         BIGINT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+  journal_count   BIGINT NOT NULL DEFAULT 0,
+  word_count      BIGINT NOT NULL DEFAULT 0,
+  first_entry_at  TIMESTAMPTZ,
+  last_entry_at   TIMESTAMPTZ
+);
+
+-- One row per user and UTC day with writing activity. This is a log of what was written
+-- on that day (journals created, edits made), so deleting a journal later does not erase it.
+CREATE TABLE IF NOT EXISTS journal_user_activity (
+  user_id   BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+  day       DATE NOT NULL,
+  created   INT NOT NULL DEFAULT 0,
+  edited    INT NOT NULL DEFAULT 0,
+  CONSTRAINT pk_journal_user_activity PRIMARY KEY (user_id, day)
+);
+
+-- first/last only need a rescan (one index probe on (user_id, created_at)) when the
+-- deleted journal was the one defining them.
+CREATE OR REPLACE FUNCTION journal_user_stats_remove(p_user_id bigint, p_created_at timestamptz,
+                                                     p_words bigint) RETURNS void AS $$
+BEGIN
+  -- UPDATE only: during a user delete the stats row may already be gone, and an upsert
+  -- would re-insert a row pointing at the deleted user.
+  UPDATE journal_user_stats
+     SET journal_count = journal_count - 1,
+         word_count = word_count - p_words
+   WHERE user_id = p_user_id;
+
+  UPDATE journal_user_stats s
+     SET first_entry_at = (SELECT min(created_at) FROM journals WHERE user_id = p_user_id),
+         last_entry_at  = (SELECT max(created_at) FROM journals WHERE user_id = p_user_id)
+   WHERE s.user_id = p_user_id
+     AND (s.first_entry_at >= p_created_at OR s.last_entry_at <= p_created_at);
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION journal_user_stats_add(p_user_id bigint, p_created_at timestamptz,
+                                                  p_words bigint) RETURNS void AS $$
+BEGIN
+  INSERT INTO journal_user_stats AS s (user_id, journal_count, word_count, first_entry_at, last_entry_at)
+  VALUES (p_user_id, 1, p_words, p_created_at, p_created_at)
+  ON CONFLICT (user_id) DO UPDATE
+     SET journal_count  = s.journal_count + 1,
+         word_count     = s.word_count + p_words,
+         first_entry_at = least(s.first_entry_at, excluded.first_entry_at),
+         last_entry_at  = greatest(s.last_entry_at, excluded.last_entry_at);
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION journal_user_activity_add(p_user_id bigint, p_at timestamptz,
+                                                     p_created int, p_edited int) RETURNS void AS $$
+BEGIN
+  INSERT INTO journal_user_activity AS a (user_id, day, created, edited)
+  VALUES (p_user_id, (p_at AT TIME ZONE 'UTC')::date, p_created, p_edited)
+  ON CONFLICT (user_id, day) DO UPDATE
+     SET created = a.created + excluded.created,
+         edited  = a.edited + excluded.edited;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION journals_maintain_user_stats() RETURNS trigger AS $$
+BEGIN
+  IF TG_OP = 'INSERT' THEN
+    PERFORM journal_user_stats_add(NEW.user_id, NEW.created_at, journal_word_count(NEW.message));
+    PERFORM journal_user_activity_add(NEW.user_id, NEW.created_at, 1, 0);
+  ELSIF TG_OP = 'DELETE' THEN
+    PERFORM journal_user_stats_remove(OLD.user_id, OLD.created_at, journal_word_count(OLD.message));
+  ELSIF NEW.user_id <> OLD.user_id THEN -- ownership moved: count it as leaving one user and joining another
+    PERFORM journal_user_stats_remove(OLD.user_id, OLD.created_at, journal_word_count(OLD.message));
+    PERFORM journal_user_stats_add(NEW.user_id, NEW.created_at, journal_word_count(NEW.message));
+  ELSE
+    -- only re-count words when the body actually changed (title-only patches are common)
+    IF NEW.message IS DISTINCT FROM OLD.message THEN
+      UPDATE journal_user_stats
+         SET word_count = word_count + journal_word_count(NEW.message) - journal_word_count(OLD.message)
+       WHERE user_id = NEW.user_id;
+    END IF;
+    IF NEW.version <> OLD.version THEN
+      PERFORM journal_user_activity_add(NEW.user_id, NEW.last_modified_at, 0, 1);
+    END IF;
+  END IF;
+  RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+-- Defined on the partitioned parent, so every current and future monthly partition gets it.
+-- A partition detached into journals_archive loses it (see journals_archive_partition below).
+CREATE TRIGGER trg_journals_user_stats
+  AFTER INSERT OR UPDATE OR DELETE ON journals
+  FOR EACH ROW EXECUTE FUNCTION journals_maintain_user_stats();
+
+-- Backfill from existing data. Edits before this migration are only known through
+-- last_modified_at (and revision history, where recorded), so each edited journal
+-- contributes one edit on its last-modified day.
+INSERT INTO journal_user_stats (user_id, journal_count, word_count, first_entry_at, last_entry_at)
+SELECT user_id, count(*), sum(journal_word_count(message)), min(created_at), max(created_at)
+  FROM journals
+ GROUP BY user_id;
+
+INSERT INTO journal_user_activity (user_id, day, created, edited)
+SELECT user_id, day, sum(created), sum(edited)
+  FROM (SELECT user_id, (created_at AT TIME ZONE 'UTC')::date AS day, 1 AS created, 0 AS edited
+          FROM journals
+        UNION ALL
+        SELECT user_id, (last_modified_at AT TIME ZONE 'UTC')::date, 0, 1
+          FROM journals
+         WHERE version > 0) e
+ GROUP BY user_id, day;
+
+-- Archiving a month detaches its partition without firing row triggers, so take its
+-- journals out of the stats here. Same body as V10 plus the stats step.
+CREATE OR REPLACE FUNCTION journals_archive_partition(p_name text) RETURNS void AS $$
+DECLARE
+  v_from date := to_date(substring(p_name from '^journals_p(\d{6})$'), 'YYYYMM');
+  v_to   date := (v_from + interval '1 month')::date;
+BEGIN
+  IF v_from IS NULL THEN
+    RAISE EXCEPTION 'not a monthly journals partition: %', p_name;
+  END IF;
+  EXECUTE format('ALTER TABLE journals DETACH PARTITION %I', p_name);
+
+  -- after the detach: the month is no longer in journals, so min/max below skip it
+  EXECUTE format($sql$
+    UPDATE journal_user_stats s
+       SET journal_count  = s.journal_count - m.n,
+           word_count     = s.word_count - m.words,
+           first_entry_at = (SELECT min(created_at) FROM journals j WHERE j.user_id = s.user_id),
+           last_entry_at  = (SELECT max(created_at) FROM journals j WHERE j.user_id = s.user_id)
+      FROM (SELECT user_id, count(*) AS n, sum(journal_word_count(message)) AS words
+              FROM %I GROUP BY user_id) m
+     WHERE s.user_id = m.user_id
+  $sql$, p_name);
+
+  -- the search index is only useful for live data; drop it before the month goes cold
+  EXECUTE format('DROP INDEX IF EXISTS %I', p_name || '_search_vector_idx');
+  EXECUTE format('ALTER TABLE journals_archive ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                 p_name, v_from::timestamp AT TIME ZONE 'UTC', v_to::timestamp AT TIME ZONE 'UTC');
+END
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,24 @@
+-- Deleting a user used to be one DELETE with ON DELETE CASCADE through all of their journals:
+-- a single transaction holding locks and writing WAL for the whole history. Now the user is
+-- tombstoned (deleted_at set, username and password cleared) in the request, and
+-- UserDeletionService removes their data in small transactions driven by this table.
+-- The job row outlives the user, which is why user_id has no FK.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMPTZ;
+
+CREATE TABLE IF NOT EXISTS user_deletion_jobs (
+  id                BIGSERIAL PRIMARY KEY,
+  user_id           BIGINT NOT NULL,
+  status            VARCHAR(16) NOT NULL,        -- PENDING, RUNNING, DONE
+  journals_total    BIGINT NOT NULL DEFAULT 0,   -- live + archived journals at tombstone time
+  journals_deleted  BIGINT NOT NULL DEFAULT 0,   -- committed together with each chunk
+  attempts          INT NOT NULL DEFAULT 0,      -- runs that claimed the job
+  last_error        TEXT,
+  lease_until       TIMESTAMPTZ,                 -- owner's claim; an expired lease is picked up again
+  requested_at      TIMESTAMPTZ NOT NULL,
+  started_at        TIMESTAMPTZ,
+  updated_at        TIMESTAMPTZ NOT NULL,
+  finished_at       TIMESTAMPTZ
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_user_deletion_jobs_user_id ON user_deletion_jobs (user_id);
+CREATE INDEX IF NOT EXISTS idx_user_deletion_jobs_open ON user_deletion_jobs (id) WHERE status <> 'DONE';
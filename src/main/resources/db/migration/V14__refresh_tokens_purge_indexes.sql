@@ -0,0 +1,6 @@
+-- Every refresh adds a row and revokes the old one, so refresh_tokens grows with use.
+-- TokenService.purge deletes rows once they can no longer matter: expired ones, and revoked
+-- ones older than the reuse-detection window. These indexes let each purge batch find them
+-- without scanning the table.
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_revoked_at ON refresh_tokens (revoked_at) WHERE revoked_at IS NOT NULL;
@@ -0,0 +1,4 @@
+-- Keyset pagination over a user's journals walks (created_at, id) newest-first;
+-- this composite index lets Postgres seek straight to the cursor position.
+CREATE INDEX IF NOT EXISTS idx_journals_user_created_id
+    ON journals (user_id, created_at DESC, id DESC);
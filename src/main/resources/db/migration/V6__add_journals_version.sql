@@ -0,0 +1,3 @@
+-- Optimistic-locking counter; also the source of journal ETags.
+ALTER TABLE journals
+  ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
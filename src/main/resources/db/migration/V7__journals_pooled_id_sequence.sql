@@ -0,0 +1,4 @@
+-- Journal ids now come from a pooled sequence (allocationSize = 50) so Hibernate can
+-- hand out ids locally and batch inserts. Each nextval reserves a block of 50; rows
+-- inserted directly by SQL still use the column default and simply skip ahead.
+ALTER SEQUENCE journals_id_seq INCREMENT BY 50;
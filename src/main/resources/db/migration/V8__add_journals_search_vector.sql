@@ -0,0 +1,10 @@
+-- Full-text search over title (weight A) and message (weight B). The column is generated,
+-- so every write path (JPA, native updates, bulk import) keeps it current automatically.
+ALTER TABLE journals
+  ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+      setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+      setweight(to_tsvector('english', coalesce(message, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_journals_search_vector ON journals USING GIN (search_vector);
@@ -0,0 +1,16 @@
+-- Rotating refresh tokens. Only a SHA-256 of the token is stored; every rotation revokes the
+-- presented token and issues a new one in the same family, so reuse of an old token
+-- (likely theft) can revoke the whole family.
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+  id          BIGSERIAL PRIMARY KEY,
+  user_id     BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+  family_id   UUID NOT NULL,
+  token_hash  VARCHAR(64) NOT NULL,
+  created_at  TIMESTAMPTZ NOT NULL,
+  expires_at  TIMESTAMPTZ NOT NULL,
+  revoked_at  TIMESTAMPTZ
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_refresh_tokens_token_hash ON refresh_tokens (token_hash);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family_id ON refresh_tokens (family_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user_id ON refresh_tokens (user_id);
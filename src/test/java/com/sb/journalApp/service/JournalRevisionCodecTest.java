@@ -0,0 +1,153 @@
+package com.sb.journalApp.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournalRevisionCodecTest {
+
+    @ParameterizedTest
+    @CsvSource(value = {
+            "hello world|XX hello world",  // insert at start
+            "hello world|hello big world", // insert in the middle
+            "hello world|hello world!!",   // insert at end
+            "hello big world|hello world", // delete
+            "abc|xyz",                     // full replacement
+            "same|same",
+            "|text",
+            "text|",
+            "aaa|aa",                      // prefix and suffix would overlap
+            "aa|aaa",
+            "abcabc|abc",
+            "abc|abcabc",
+            "abba|aba",
+            "😀|😃",                       // same high surrogate, different low
+            "a😀b|a😃b",
+            "😀x|😃x",
+            "😀|🈀",                       // same low surrogate, different high
+            "𝄞 clef|𝄟 clef",               // astral plane, U+1D11E -> U+1D11F
+            "note 𝄞|note 𝄞𝄞",
+            "😀😀|😀",
+            "day 🌧|day 🌧 then ☀",
+    }, delimiter = '|', emptyValue = "")
+    void deltaRoundTrips(String base, String target) {
+        JournalRevisionCodec.Stored d = JournalRevisionCodec.delta(1, base, target);
+
+        assertEquals(target, JournalRevisionCodec.apply(base, d));
+        assertWholeCodePoints(d.body());
+        assertWholeCodePoints(base.substring(0, d.prefixLen()));
+        assertWholeCodePoints(base.substring(base.length() - d.suffixLen()));
+        assertTrue(d.prefixLen() + d.suffixLen() <= Math.min(base.length(), target.length()));
+        assertEquals(target.length() - d.prefixLen() - d.suffixLen(), d.body().length());
+    }
+
+    @Test
+    void emojiEditStoresTheWholeEmoji() {
+        JournalRevisionCodec.Stored d = JournalRevisionCodec.delta(1, "mood: 😀", "mood: 😃");
+
+        assertEquals("😃", d.body());
+        assertEquals(6, d.prefixLen());
+        assertEquals(0, d.suffixLen());
+    }
+
+    @Test
+    void deltaKeepsOnlyTheEditedText() {
+        JournalRevisionCodec.Stored d = JournalRevisionCodec.delta(1, "hello world", "hello big world");
+
+        assertEquals("big ", d.body());
+        assertEquals(6, d.prefixLen());
+        assertEquals(5, d.suffixLen());
+    }
+
+    @Test
+    void overlappingPrefixAndSuffixAreNotCountedTwice() {
+        JournalRevisionCodec.Stored d = JournalRevisionCodec.delta(1, "aaa", "aa");
+
+        assertEquals(2, d.prefixLen());
+        assertEquals(0, d.suffixLen());
+        assertEquals("", d.body());
+    }
+
+    @Test
+    void firstEditStoresTheReplacedVersionAsBase() {
+        List<JournalRevisionCodec.Stored> rows = JournalRevisionCodec.encode(null, null, 0, "v0", 1, "v1", 20);
+
+        assertEquals(2, rows.size());
+        assertEquals(JournalRevisionCodec.snapshot(0, "v0"), rows.get(0));
+        assertFalse(rows.get(1).snapshot());
+        assertEquals(1, rows.get(1).version());
+        assertEquals("v1", JournalRevisionCodec.replay(rows));
+    }
+
+    @Test
+    void followingEditStoresOnlyTheDelta() {
+        List<JournalRevisionCodec.Stored> rows = JournalRevisionCodec.encode(3L, 0L, 3, "v3", 4, "v4", 20);
+
+        assertEquals(1, rows.size());
+        assertFalse(rows.get(0).snapshot());
+        assertEquals(4, rows.get(0).version());
+    }
+
+    @Test
+    void gapStartsFromANewBase() {
+        // history ends at 3, but the edit replaces version 5 (written while revisions were off)
+        List<JournalRevisionCodec.Stored> rows = JournalRevisionCodec.encode(3L, 0L, 5, "v5", 6, "v6", 20);
+
+        assertEquals(2, rows.size());
+        assertEquals(JournalRevisionCodec.snapshot(5, "v5"), rows.get(0));
+        assertEquals("v6", JournalRevisionCodec.replay(rows));
+    }
+
+    @Test
+    void snapshotEveryIntervalVersions() {
+        List<JournalRevisionCodec.Stored> rows = JournalRevisionCodec.encode(3L, 0L, 3, "v3", 4, "v4", 4);
+
+        assertEquals(List.of(JournalRevisionCodec.snapshot(4, "v4")), rows);
+    }
+
+    @Test
+    void everyVersionReconstructsFromItsNearestSnapshot() {
+        int interval = 3;
+        List<String> texts = new ArrayList<>(List.of("Dear diary"));
+        List<JournalRevisionCodec.Stored> stored = new ArrayList<>();
+        Long latest = null;
+        Long latestSnapshot = null;
+        String[] edits = { "Dear diary, today", "Dear diary, today was", "Dear diary, today was fine",
+                "Dear diary, today was fine.", "Dear diary, yesterday was fine.", "Diary: fine.", "",
+                "New start", "New start, again", "New start, again and again" };
+        for (String edit : edits) {
+            int prev = texts.size() - 1;
+            for (JournalRevisionCodec.Stored s : JournalRevisionCodec.encode(latest, latestSnapshot,
+                    prev, texts.get(prev), prev + 1, edit, interval)) {
+                stored.add(s);
+                latest = s.version();
+                if (s.snapshot()) latestSnapshot = s.version();
+            }
+            texts.add(edit);
+        }
+
+        for (int v = 0; v < texts.size(); v++) {
+            int version = v;
+            long base = stored.stream().filter(s -> s.snapshot() && s.version() <= version)
+                    .mapToLong(JournalRevisionCodec.Stored::version).max().orElseThrow();
+            List<JournalRevisionCodec.Stored> replayed = stored.stream()
+                    .filter(s -> s.version() >= base && s.version() <= version).toList();
+
+            assertEquals(texts.get(v), JournalRevisionCodec.replay(replayed), "version " + v);
+            assertTrue(replayed.size() <= interval, "version " + v + " replays " + replayed.size() + " rows");
+        }
+    }
+
+    // what survives a round trip through a UTF-8 TEXT column
+    private static void assertWholeCodePoints(String s) {
+        assertEquals(s, new String(s.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8), "split surrogate in " + s);
+    }
+}